@@ -5,13 +5,67 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MarkerFactory;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 public abstract class BaseConnectionDispatcher<T extends BaseConnectionObserver> extends BaseDispatcher<T>  {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BaseConnectionDispatcher.class);
 
+    private static final Object[] NO_OBSERVERS = new Object[0];
+
+    // Copy on write: registering replaces the array, dispatching only reads it.
+    private final Map<String, Object[]> observersByConnection = new ConcurrentHashMap<>();
+
+    // Connection id an observer was indexed with, so it can be removed even if its id changed meanwhile.
+    private final Map<T, String> indexedConnectionIds = new HashMap<>();
+
+    @Override
+    public synchronized void addObserver(T observer) {
+        super.addObserver(observer);
+
+        String connectionId = observer.getConnectionId();
+        if (connectionId == null || indexedConnectionIds.containsKey(observer)) {
+            return;
+        }
+
+        indexedConnectionIds.put(observer, connectionId);
+        observersByConnection.compute(connectionId, (id, observers) -> {
+            Object[] current = observers == null ? NO_OBSERVERS : observers;
+            Object[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = observer;
+            return updated;
+        });
+    }
+
+    @Override
+    public synchronized void removeObserver(T observer) {
+        super.removeObserver(observer);
+
+        String connectionId = indexedConnectionIds.remove(observer);
+        if (connectionId == null) {
+            return;
+        }
+
+        observersByConnection.computeIfPresent(connectionId, (id, observers) -> {
+            int index = Arrays.asList(observers).indexOf(observer);
+            if (index < 0) {
+                return observers;
+            }
+            if (observers.length == 1) {
+                return null;
+            }
+            Object[] updated = new Object[observers.length - 1];
+            System.arraycopy(observers, 0, updated, 0, index);
+            System.arraycopy(observers, index + 1, updated, index, updated.length - index);
+            return updated;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
     void triggerFiltered(String connectionId, Consumer<T> trigger) {
         final String callerString = getCallerString();
 
@@ -20,17 +74,23 @@ public abstract class BaseConnectionDispatcher<T extends BaseConnectionObserver>
                          "Trigger with connectionId {}: {}",
                          connectionId, callerString);
         }
-        observer.stream()
-                .filter(o -> o.getConnectionId() != null)
-                .filter(o -> o.getConnectionId().equals(connectionId))
-                .collect(Collectors.toList())
-                .forEach(o -> {
-                    if (LOGGER.isTraceEnabled()) {
-                        LOGGER.trace(MarkerFactory.getMarker(ConnectionHolder.getInstance().getConfig(connectionId).getName()),
-                                     "Trigger with connectionId {}: {} -> {}",
-                                     connectionId, callerString, o.getClass().getSimpleName());
-                    }
-                    trigger.accept(o);
-                });
+
+        if (connectionId == null) {
+            return;
+        }
+
+        Object[] observers = observersByConnection.get(connectionId);
+        if (observers == null) {
+            return;
+        }
+
+        for (Object o : observers) {
+            if (LOGGER.isTraceEnabled()) {
+                LOGGER.trace(MarkerFactory.getMarker(ConnectionHolder.getInstance().getConfig(connectionId).getName()),
+                             "Trigger with connectionId {}: {} -> {}",
+                             connectionId, callerString, o.getClass().getSimpleName());
+            }
+            trigger.accept((T) o);
+        }
     }
 }
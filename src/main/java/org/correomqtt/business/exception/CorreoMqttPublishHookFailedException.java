@@ -0,0 +1,13 @@
+package org.correomqtt.business.exception;
+
+public class CorreoMqttPublishHookFailedException extends CorreoMqttException {
+
+    public CorreoMqttPublishHookFailedException(Exception e) {
+        super(e);
+    }
+
+    @Override
+    public String getInfo() {
+        return resources.getString("correoMqttPublishHookFailedExceptionInfo") + ": " + getCause().getMessage();
+    }
+}
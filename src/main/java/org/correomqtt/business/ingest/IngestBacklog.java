@@ -0,0 +1,73 @@
+package org.correomqtt.business.ingest;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Incoming messages of one connection that the message lists accepted but did not show yet. The ingest workers wait
+ * while it is full, so their queues fill up and the overflow policies of the subscriptions apply even if the FX thread
+ * is what falls behind. Safe to use from any thread.
+ */
+public class IngestBacklog {
+
+    static final int DEFAULT_LIMIT = 10_000;
+
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final int limit;
+    private final AtomicInteger size = new AtomicInteger();
+    private final Set<Thread> waiting = ConcurrentHashMap.newKeySet();
+
+    public IngestBacklog() {
+        this(DEFAULT_LIMIT);
+    }
+
+    IngestBacklog(int limit) {
+        this.limit = Math.max(1, limit);
+    }
+
+    /**
+     * Called by the message lists when they accept messages.
+     */
+    public void added(int count) {
+        size.addAndGet(count);
+    }
+
+    /**
+     * Called by the message lists when messages were shown or discarded.
+     */
+    public void removed(int count) {
+        // Never below zero, e.g. if a list was cleared while messages of it were counted.
+        int current = size.updateAndGet(s -> Math.max(0, s - count));
+        if (current < limit && !waiting.isEmpty()) {
+            waiting.forEach(LockSupport::unpark);
+        }
+    }
+
+    public boolean isFull() {
+        return size.get() >= limit;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Parks the calling worker until there is room again or a short timeout passed. Must not be called on MQTT client
+     * or FX threads.
+     */
+    void await() {
+        Thread current = Thread.currentThread();
+        waiting.add(current);
+        try {
+            if (isFull()) {
+                LockSupport.parkNanos(this, MAX_WAIT_NANOS);
+            }
+        } finally {
+            waiting.remove(current);
+        }
+    }
+}
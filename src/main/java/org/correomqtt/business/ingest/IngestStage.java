@@ -0,0 +1,33 @@
+package org.correomqtt.business.ingest;
+
+/**
+ * Steps an incoming message passes on its way into a message list, in order. Every stage works on the same message
+ * object, see {@link IngestTimings} for the time spent in each.
+ */
+public enum IngestStage {
+
+    /**
+     * Turning the received message into the message kept by the list.
+     */
+    DECODE,
+
+    /**
+     * Waiting in the lane of the ingest pipeline until dispatched to the primary subscription.
+     */
+    ROUTE,
+
+    /**
+     * Incoming message hooks of plugins, only counted if there are any.
+     */
+    HOOKS,
+
+    /**
+     * Adding to the message list and the latest values on the FX thread.
+     */
+    STORE,
+
+    /**
+     * Setting up a list cell for a message it did not show before, or that changed.
+     */
+    RENDER
+}
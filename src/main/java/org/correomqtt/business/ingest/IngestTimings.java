@@ -0,0 +1,74 @@
+package org.correomqtt.business.ingest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time spent per message in each {@link IngestStage} of one connection. Stages working in batches record the average
+ * per message of a batch. Safe to record from any thread.
+ */
+public class IngestTimings {
+
+    private final Map<IngestStage, StageTimings> stages = new EnumMap<>(IngestStage.class);
+
+    public IngestTimings() {
+        for (IngestStage stage : IngestStage.values()) {
+            stages.put(stage, new StageTimings());
+        }
+    }
+
+    public void record(IngestStage stage, long nanos) {
+        record(stage, nanos, 1);
+    }
+
+    public void record(IngestStage stage, long nanos, int messages) {
+        if (messages <= 0) {
+            return;
+        }
+        StageTimings timings = stages.get(stage);
+        timings.messages.add(messages);
+        timings.totalNanos.add(nanos);
+        timings.maxNanos.accumulateAndGet(nanos / messages, Math::max);
+    }
+
+    public long getMessages(IngestStage stage) {
+        return stages.get(stage).messages.sum();
+    }
+
+    public long getAverageNanos(IngestStage stage) {
+        StageTimings timings = stages.get(stage);
+        long messages = timings.messages.sum();
+        return messages == 0 ? 0 : timings.totalNanos.sum() / messages;
+    }
+
+    public long getMaxNanos(IngestStage stage) {
+        return stages.get(stage).maxNanos.get();
+    }
+
+    public long getTotalMessages() {
+        return stages.values().stream().mapToLong(t -> t.messages.sum()).max().orElse(0);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (IngestStage stage : IngestStage.values()) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(stage.name().toLowerCase(Locale.ROOT))
+              .append(String.format(Locale.ROOT, " %.3f/%.3f ms", getAverageNanos(stage) / 1_000_000d, getMaxNanos(stage) / 1_000_000d));
+        }
+        return sb.toString();
+    }
+
+    private static final class StageTimings {
+
+        private final LongAdder messages = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+    }
+}
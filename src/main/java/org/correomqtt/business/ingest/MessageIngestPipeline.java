@@ -0,0 +1,472 @@
+package org.correomqtt.business.ingest;
+
+import org.correomqtt.business.dispatcher.SubscribeDispatcher;
+import org.correomqtt.business.model.IngestOverflowPolicy;
+import org.correomqtt.business.model.MessageDTO;
+import org.correomqtt.business.model.SettingsDTO;
+import org.correomqtt.business.model.SubscriptionDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves incoming messages of one connection off the MQTT client threads. Messages are spread over a fixed number of
+ * lanes by topic, each lane is a bounded queue drained by its own worker, so the order per topic is kept. With more
+ * than one lane, subscribe observers are called from several threads at the same time.
+ * <p>
+ * What happens when a lane runs full is decided per subscription, see {@link IngestOverflowPolicy}. Sampling and
+ * conflation already start once a lane is half full, the other policies only act on a full lane.
+ * <p>
+ * The workers wait while the {@link IngestBacklog} of the connection is full, so the policies also act if the message
+ * lists are what falls behind. Messages of subscriptions with manual acknowledgement are acknowledged once the subscribe
+ * observers accepted them, or when they were dropped, conflated or discarded on shutdown.
+ */
+public class MessageIngestPipeline {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageIngestPipeline.class);
+
+    private final String connectionId;
+    private final IngestOverflowPolicy defaultOverflowPolicy;
+    private final int sampleRate;
+    private final IngestTimings timings;
+    private final IngestBacklog backlog;
+    private final Lane[] lanes;
+    private final Map<String, SubscriptionState> subscriptions = new ConcurrentHashMap<>();
+
+    private final LongAdder processedMessages = new LongAdder();
+    private final LongAdder droppedMessages = new LongAdder();
+    private final LongAdder conflatedMessages = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    private volatile boolean running = true;
+
+    public MessageIngestPipeline(String connectionId,
+                                 int workerThreads,
+                                 int capacity,
+                                 IngestOverflowPolicy defaultOverflowPolicy,
+                                 int sampleRate,
+                                 IngestTimings timings,
+                                 IngestBacklog backlog) {
+        this.connectionId = connectionId;
+        this.timings = timings == null ? new IngestTimings() : timings;
+        this.backlog = backlog == null ? new IngestBacklog() : backlog;
+        this.defaultOverflowPolicy = defaultOverflowPolicy == null ? IngestOverflowPolicy.BLOCK : defaultOverflowPolicy;
+        this.sampleRate = Math.max(1, sampleRate);
+
+        int laneCount = Math.max(1, workerThreads);
+        int laneCapacity = Math.max(1, capacity / laneCount);
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(laneCapacity);
+            Thread thread = new Thread(lanes[i], "correo-ingest-" + connectionId + "-" + i);
+            thread.setDaemon(true);
+            lanes[i].thread = thread;
+            thread.start();
+        }
+    }
+
+    public static MessageIngestPipeline fromSettings(String connectionId, SettingsDTO settings, IngestTimings timings,
+                                                     IngestBacklog backlog) {
+        return new MessageIngestPipeline(connectionId,
+                settings.getIngestWorkerThreads(),
+                settings.getIngestQueueCapacity(),
+                settings.getIngestOverflowPolicy(),
+                settings.getIngestSampleRate(),
+                timings,
+                backlog);
+    }
+
+    public void register(SubscriptionDTO subscriptionDTO) {
+        IngestOverflowPolicy policy = subscriptionDTO.getOverflowPolicy() == null ? defaultOverflowPolicy : subscriptionDTO.getOverflowPolicy();
+        getState(subscriptionDTO.getTopic()).overflowPolicy = policy;
+    }
+
+    public void unregister(SubscriptionDTO subscriptionDTO) {
+        subscriptions.remove(subscriptionDTO.getTopic());
+    }
+
+    public void setOverflowPolicy(String subscriptionTopic, IngestOverflowPolicy overflowPolicy) {
+        getState(subscriptionTopic).overflowPolicy = overflowPolicy == null ? defaultOverflowPolicy : overflowPolicy;
+    }
+
+    public IngestOverflowPolicy getOverflowPolicy(String subscriptionTopic) {
+        SubscriptionState state = subscriptions.get(subscriptionTopic);
+        return state == null ? defaultOverflowPolicy : state.overflowPolicy;
+    }
+
+    public long getDroppedMessages(String subscriptionTopic) {
+        SubscriptionState state = subscriptions.get(subscriptionTopic);
+        return state == null ? 0 : state.droppedMessages.sum();
+    }
+
+    public long getConflatedMessages(String subscriptionTopic) {
+        SubscriptionState state = subscriptions.get(subscriptionTopic);
+        return state == null ? 0 : state.conflatedMessages.sum();
+    }
+
+    /**
+     * Called from the MQTT client thread, never blocks it. With {@link IngestOverflowPolicy#BLOCK} a full lane keeps
+     * queueing and never drops. With manual acknowledgement the broker is slowed down by the acknowledgements that are
+     * only sent once the messages were accepted, so it stops at the receive maximum. QoS 0 messages and connections
+     * without manual acknowledgement are not flow controlled, their lane grows past its capacity.
+     */
+    public void offer(MessageDTO messageDTO, SubscriptionDTO subscriptionDTO) {
+        if (!running) {
+            messageDTO.acknowledge();
+            return;
+        }
+
+        accept(messageDTO, subscriptionDTO);
+
+        // Shut down while queueing, nobody else is left to acknowledge it.
+        if (!running) {
+            laneFor(messageDTO.getTopic()).discardAll();
+        }
+    }
+
+    private void accept(MessageDTO messageDTO, SubscriptionDTO subscriptionDTO) {
+        SubscriptionState state = getState(subscriptionDTO.getTopic());
+        IngestOverflowPolicy policy = state.overflowPolicy;
+        Lane lane = laneFor(messageDTO.getTopic());
+        IngestEvent event = new IngestEvent(messageDTO, subscriptionDTO, state, System.nanoTime());
+
+        if (policy == IngestOverflowPolicy.CONFLATE && lane.conflate(event)) {
+            return;
+        }
+
+        if (policy == IngestOverflowPolicy.SAMPLE && lane.isUnderPressure() && !state.sample(sampleRate)) {
+            dropped(event);
+            return;
+        }
+
+        if (lane.tryReserve()) {
+            lane.enqueue(event);
+            return;
+        }
+
+        lane.logOverflow(policy);
+
+        if (policy == IngestOverflowPolicy.BLOCK) {
+            lane.reserve();
+            lane.enqueue(event);
+        } else if (policy == IngestOverflowPolicy.DROP_OLDEST) {
+            lane.replaceOldest(event);
+        } else {
+            dropped(event);
+        }
+    }
+
+    public void shutdown() {
+        running = false;
+        for (Lane lane : lanes) {
+            lane.discardAll();
+            LockSupport.unpark(lane.thread);
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Lane lane : lanes) {
+            depth += lane.size.get();
+        }
+        return depth;
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    public long getProcessedMessages() {
+        return processedMessages.sum();
+    }
+
+    public long getDroppedMessages() {
+        return droppedMessages.sum();
+    }
+
+    public long getConflatedMessages() {
+        return conflatedMessages.sum();
+    }
+
+    public long getAverageLatencyNanos() {
+        long processed = processedMessages.sum();
+        return processed == 0 ? 0 : totalLatencyNanos.sum() / processed;
+    }
+
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+
+    public IngestTimings getTimings() {
+        return timings;
+    }
+
+    private SubscriptionState getState(String subscriptionTopic) {
+        SubscriptionState state = subscriptions.get(subscriptionTopic);
+        if (state == null) {
+            state = subscriptions.computeIfAbsent(subscriptionTopic, t -> new SubscriptionState(defaultOverflowPolicy));
+        }
+        return state;
+    }
+
+    private Lane laneFor(String topic) {
+        if (lanes.length == 1 || topic == null) {
+            return lanes[0];
+        }
+        return lanes[(topic.hashCode() & Integer.MAX_VALUE) % lanes.length];
+    }
+
+    private void dropped(IngestEvent event) {
+        event.messageDTO.acknowledge();
+        event.state.droppedMessages.increment();
+        droppedMessages.increment();
+    }
+
+    private void conflated(IngestEvent event) {
+        event.messageDTO.acknowledge();
+        event.state.conflatedMessages.increment();
+        conflatedMessages.increment();
+    }
+
+    private static void discarded(IngestEvent event) {
+        event.messageDTO.acknowledge();
+    }
+
+    private void dispatch(IngestEvent event) {
+        timings.record(IngestStage.ROUTE, System.nanoTime() - event.enqueuedNanos);
+        try {
+            SubscribeDispatcher.getInstance().onMessageIncoming(connectionId, event.messageDTO, event.subscriptionDTO);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Dispatching incoming message on {} failed.", event.messageDTO.getTopic(), e);
+        } finally {
+            event.messageDTO.acknowledge();
+        }
+
+        long latency = System.nanoTime() - event.enqueuedNanos;
+        processedMessages.increment();
+        totalLatencyNanos.add(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+    }
+
+    private static final class SubscriptionState {
+
+        private final LongAdder droppedMessages = new LongAdder();
+        private final LongAdder conflatedMessages = new LongAdder();
+        private final AtomicLong sampleCounter = new AtomicLong();
+        private volatile IngestOverflowPolicy overflowPolicy;
+
+        private SubscriptionState(IngestOverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        private boolean sample(int rate) {
+            return sampleCounter.getAndIncrement() % rate == 0;
+        }
+    }
+
+    private static final class IngestEvent {
+
+        private final MessageDTO messageDTO;
+        private final SubscriptionDTO subscriptionDTO;
+        private final SubscriptionState state;
+        private final long enqueuedNanos;
+
+        // Set for placeholders of conflated topics, the message itself is looked up when the placeholder is reached.
+        private final String conflationKey;
+
+        private IngestEvent(MessageDTO messageDTO, SubscriptionDTO subscriptionDTO, SubscriptionState state, long enqueuedNanos) {
+            this.messageDTO = messageDTO;
+            this.subscriptionDTO = subscriptionDTO;
+            this.state = state;
+            this.enqueuedNanos = enqueuedNanos;
+            this.conflationKey = null;
+        }
+
+        private IngestEvent(String conflationKey) {
+            this.messageDTO = null;
+            this.subscriptionDTO = null;
+            this.state = null;
+            this.enqueuedNanos = 0;
+            this.conflationKey = conflationKey;
+        }
+
+        private String getConflationKey() {
+            return subscriptionDTO.getTopic() + '\u0000' + messageDTO.getTopic();
+        }
+    }
+
+    private final class Lane implements Runnable {
+
+        private final Queue<IngestEvent> queue = new ConcurrentLinkedQueue<>();
+        private final Map<String, IngestEvent> pendingLatest = new ConcurrentHashMap<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean overflowing = new AtomicBoolean(false);
+        private final int capacity;
+        private final int pressureThreshold;
+        private volatile boolean waiting;
+        private Thread thread;
+
+        private Lane(int capacity) {
+            this.capacity = capacity;
+            this.pressureThreshold = Math.max(1, capacity / 2);
+        }
+
+        private boolean isUnderPressure() {
+            return size.get() >= pressureThreshold;
+        }
+
+        private boolean tryReserve() {
+            int current;
+            do {
+                current = size.get();
+                if (current >= capacity) {
+                    return false;
+                }
+            } while (!size.compareAndSet(current, current + 1));
+
+            maxQueueDepth.accumulateAndGet(current + 1, Math::max);
+            return true;
+        }
+
+        private void reserve() {
+            maxQueueDepth.accumulateAndGet(size.incrementAndGet(), Math::max);
+        }
+
+        private void enqueue(IngestEvent event) {
+            queue.offer(event);
+            if (waiting) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        /**
+         * Keeps only the latest message per topic while the lane is under pressure. A topic that already waits as
+         * conflated stays conflated, otherwise a newer message could overtake the pending one.
+         */
+        private boolean conflate(IngestEvent event) {
+            String key = event.getConflationKey();
+            if (!isUnderPressure() && !pendingLatest.containsKey(key)) {
+                return false;
+            }
+
+            IngestEvent previous = pendingLatest.put(key, event);
+            if (previous != null) {
+                conflated(previous);
+                return true;
+            }
+
+            if (tryReserve()) {
+                enqueue(new IngestEvent(key));
+                return true;
+            }
+
+            pendingLatest.remove(key, event);
+            return false;
+        }
+
+        /**
+         * Drops the oldest queued message of the same subscription, the slot it reserved is handed over to the new
+         * one. If the lane is full of other subscriptions' messages, the new message is the oldest one left to drop.
+         */
+        private void replaceOldest(IngestEvent event) {
+            for (IngestEvent queued : queue) {
+                if (belongsTo(queued, event.state) && queue.remove(queued)) {
+                    IngestEvent resolved = resolve(queued);
+                    if (resolved != null) {
+                        dropped(resolved);
+                    }
+                    enqueue(event);
+                    return;
+                }
+            }
+
+            if (tryReserve()) {
+                enqueue(event);
+            } else {
+                dropped(event);
+            }
+        }
+
+        private boolean belongsTo(IngestEvent queued, SubscriptionState state) {
+            if (queued.conflationKey == null) {
+                return queued.state == state;
+            }
+            IngestEvent latest = pendingLatest.get(queued.conflationKey);
+            return latest != null && latest.state == state;
+        }
+
+        private IngestEvent resolve(IngestEvent event) {
+            return event.conflationKey == null ? event : pendingLatest.remove(event.conflationKey);
+        }
+
+        /**
+         * Acknowledges everything still queued. Safe while the worker runs, each message is taken by one of them.
+         */
+        private void discardAll() {
+            IngestEvent event;
+            while ((event = queue.poll()) != null) {
+                size.decrementAndGet();
+                IngestEvent resolved = resolve(event);
+                if (resolved != null) {
+                    discarded(resolved);
+                }
+            }
+            // Conflated messages whose placeholder was already taken by the worker.
+            for (String key : pendingLatest.keySet()) {
+                IngestEvent pending = pendingLatest.remove(key);
+                if (pending != null) {
+                    discarded(pending);
+                }
+            }
+        }
+
+        private void logOverflow(IngestOverflowPolicy policy) {
+            if (overflowing.compareAndSet(false, true)) {
+                LOGGER.warn("Incoming message queue of {} is full ({} messages), policy {}.", thread.getName(), capacity, policy);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                if (backlog.isFull()) {
+                    backlog.await();
+                    continue;
+                }
+
+                IngestEvent event = queue.poll();
+                if (event == null) {
+                    overflowing.set(false);
+                    waiting = true;
+                    // Re-check after announcing the wait, a producer may have enqueued in between.
+                    if (queue.isEmpty() && running) {
+                        LockSupport.park(this);
+                    }
+                    waiting = false;
+                    continue;
+                }
+                size.decrementAndGet();
+
+                IngestEvent resolved = resolve(event);
+                if (resolved != null) {
+                    dispatch(resolved);
+                }
+            }
+        }
+    }
+}
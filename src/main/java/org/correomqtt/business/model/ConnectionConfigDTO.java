@@ -29,6 +29,8 @@ public class ConnectionConfigDTO {
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY) // do never save passwords
     private String password;
     private boolean cleanSession;
+    private boolean manualAcknowledgement;
+    private int receiveMaximum;
     @Builder.Default
     private CorreoMqttVersion mqttVersion = CorreoMqttVersion.MQTT_3_1_1;
     @Builder.Default
@@ -66,6 +68,8 @@ public class ConnectionConfigDTO {
         username = configDTO.username;
         password = configDTO.password;
         cleanSession = configDTO.cleanSession;
+        manualAcknowledgement = configDTO.manualAcknowledgement;
+        receiveMaximum = configDTO.receiveMaximum;
         mqttVersion = configDTO.mqttVersion;
         ssl = configDTO.ssl;
         sslKeystore = configDTO.sslKeystore;
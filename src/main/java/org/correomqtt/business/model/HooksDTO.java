@@ -59,5 +59,7 @@ public class HooksDTO {
         private String id;
         private String pluginId;
         private JsonNode config;
+        private Long timeoutMillis;
+        private Long budgetMillis;
     }
 }
@@ -0,0 +1,33 @@
+package org.correomqtt.business.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public enum IngestOverflowPolicy {
+    BLOCK,
+    DROP_NEWEST,
+    DROP_OLDEST,
+    SAMPLE,
+    CONFLATE;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IngestOverflowPolicy.class);
+
+    @SuppressWarnings("unused")
+    @JsonCreator
+    public static IngestOverflowPolicy fromJsonValue(String value) {
+        try {
+            return IngestOverflowPolicy.valueOf(value);
+        } catch (IllegalArgumentException iae) {
+            LOGGER.warn("Exception reading from json value.", iae);
+            return BLOCK;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    @JsonValue
+    public String toJsonValue() {
+        return name();
+    }
+}
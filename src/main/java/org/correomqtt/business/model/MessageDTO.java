@@ -2,20 +2,24 @@ package org.correomqtt.business.model;
 
 import org.correomqtt.business.utils.CorreoCharsetDecoder;
 import org.correomqtt.business.utils.MessageDateTimeFormatter;
+import org.correomqtt.business.utils.MessageIds;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.hivemq.client.mqtt.mqtt3.message.publish.Mqtt3Publish;
 import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.Objects;
-import java.util.UUID;
 
 @Getter
 @Setter
@@ -26,22 +30,32 @@ import java.util.UUID;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class MessageDTO implements Comparable<MessageDTO> {
     private String topic;
+    // Set once the topic went through the TopicDictionary of the connection.
+    @JsonIgnore
+    private int topicId;
     private String payload;
+    @JsonIgnore
+    private ByteBuffer payloadBuffer;
     private boolean isRetained;
     private Qos qos;
     @MessageDateTimeFormatter
     private LocalDateTime dateTime;
-    private String messageId;
+    // Persisted as string, see MessageIds.
+    @JsonIgnore
+    private long id;
     private MessageType messageType;
     private PublishStatus publishStatus;
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    private Runnable acknowledgement;
 
     public MessageDTO(Mqtt3Publish mqtt3Publish) {
         setTopic(mqtt3Publish.getTopic().toString());
         setQos(Qos.valueOf(mqtt3Publish.getQos()));
         setRetained(mqtt3Publish.isRetain());
-        setPayload(CorreoCharsetDecoder.decode(mqtt3Publish.getPayloadAsBytes()));
+        mqtt3Publish.getPayload().ifPresentOrElse(this::setPayloadBuffer, () -> setPayload(""));
         setDateTime(LocalDateTime.now(ZoneOffset.UTC));
-        setMessageId(UUID.randomUUID().toString());
+        setId(MessageIds.next());
         setMessageType(MessageType.INCOMING);
     }
 
@@ -49,12 +63,46 @@ public class MessageDTO implements Comparable<MessageDTO> {
         setTopic(mqtt5Publish.getTopic().toString());
         setQos(Qos.valueOf(mqtt5Publish.getQos()));
         setRetained(mqtt5Publish.isRetain());
-        setPayload(CorreoCharsetDecoder.decode(mqtt5Publish.getPayloadAsBytes()));
+        mqtt5Publish.getPayload().ifPresentOrElse(this::setPayloadBuffer, () -> setPayload(""));
         setDateTime(LocalDateTime.now(ZoneOffset.UTC));
-        setMessageId(UUID.randomUUID().toString());
+        setId(MessageIds.next());
         setMessageType(MessageType.INCOMING);
     }
 
+    public String getPayload() {
+        // Incoming payloads stay raw until someone actually needs the text.
+        if (payload == null && payloadBuffer != null) {
+            payload = CorreoCharsetDecoder.decode(payloadBuffer);
+        }
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+        this.payloadBuffer = null;
+    }
+
+    @JsonProperty("messageId")
+    public String getMessageId() {
+        return MessageIds.toString(id);
+    }
+
+    @JsonProperty("messageId")
+    public void setMessageId(String messageId) {
+        this.id = MessageIds.fromString(messageId);
+    }
+
+    /**
+     * Sends the acknowledgement for subscriptions with manual acknowledgement, only the first call has an effect.
+     */
+    public void acknowledge() {
+        Runnable pendingAcknowledgement = acknowledgement;
+        acknowledgement = null;
+        if (pendingAcknowledgement != null) {
+            pendingAcknowledgement.run();
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
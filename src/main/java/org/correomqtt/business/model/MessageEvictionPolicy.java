@@ -0,0 +1,30 @@
+package org.correomqtt.business.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public enum MessageEvictionPolicy {
+    DROP_OLDEST,
+    KEEP_LAST_PER_TOPIC;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageEvictionPolicy.class);
+
+    @SuppressWarnings("unused")
+    @JsonCreator
+    public static MessageEvictionPolicy fromJsonValue(String value) {
+        try {
+            return MessageEvictionPolicy.valueOf(value);
+        } catch (IllegalArgumentException iae) {
+            LOGGER.warn("Exception reading from json value.", iae);
+            return DROP_OLDEST;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    @JsonValue
+    public String toJsonValue() {
+        return name();
+    }
+}
@@ -30,6 +30,23 @@ public class SettingsDTO {
     private GlobalUISettings globalUISettings = null;
     @Builder.Default
     private String configCreatedWithCorreoVersion = null;
+    @Builder.Default
+    private int messageStoreMaxMessages = 10000;
+    @Builder.Default
+    private long messageStoreMaxBytes = 64L * 1024 * 1024;
+    @Builder.Default
+    private MessageEvictionPolicy messageStoreEvictionPolicy = MessageEvictionPolicy.DROP_OLDEST;
+    @Builder.Default
+    private int messageStoreKeepPerTopic = 100;
+    // Subscribe observers and plugin hooks expect to be called by one thread at a time.
+    @Builder.Default
+    private int ingestWorkerThreads = 1;
+    @Builder.Default
+    private int ingestQueueCapacity = 10000;
+    @Builder.Default
+    private IngestOverflowPolicy ingestOverflowPolicy = IngestOverflowPolicy.BLOCK;
+    @Builder.Default
+    private int ingestSampleRate = 10;
 
     public boolean isUseRegexForSearch() {
         return useRegexForSearch;
@@ -22,6 +22,7 @@ public class SubscriptionDTO {
     private String topic;
     private Qos qos;
     private boolean hidden = false;
+    private IngestOverflowPolicy overflowPolicy;
 
     @Override
     public boolean equals(Object o) {
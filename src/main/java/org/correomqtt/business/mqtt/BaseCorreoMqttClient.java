@@ -10,6 +10,9 @@ import org.correomqtt.business.model.ConnectionConfigDTO;
 import org.correomqtt.business.model.MessageDTO;
 import org.correomqtt.business.model.Proxy;
 import org.correomqtt.business.model.SubscriptionDTO;
+import org.correomqtt.business.provider.SettingsProvider;
+import org.correomqtt.business.utils.ConnectionHolder;
+import org.correomqtt.business.utils.CorreoMqttConnection;
 import com.hivemq.client.mqtt.lifecycle.MqttClientConnectedContext;
 import com.hivemq.client.mqtt.lifecycle.MqttClientConnectedListener;
 import com.hivemq.client.mqtt.lifecycle.MqttClientDisconnectedContext;
@@ -42,6 +45,7 @@ import java.util.function.Consumer;
 abstract class BaseCorreoMqttClient implements CorreoMqttClient, MqttClientDisconnectedListener, MqttClientConnectedListener {
 
     private static final int MAX_RECONNECTS = 5;
+    private static final int MAX_RECEIVE_MAXIMUM = 65535;
 
     private final ConnectionConfigDTO configDTO;
     private final AtomicBoolean wasConnectedBefore = new AtomicBoolean(false);
@@ -59,6 +63,21 @@ abstract class BaseCorreoMqttClient implements CorreoMqttClient, MqttClientDisco
         return configDTO;
     }
 
+    /**
+     * Receive maximum to announce to the broker or 0 for the broker default. With manual acknowledgement it defaults
+     * to the ingest queue capacity, so the broker never sends more than we are able to queue.
+     */
+    int getReceiveMaximum() {
+        if (configDTO.getReceiveMaximum() > 0) {
+            return Math.min(MAX_RECEIVE_MAXIMUM, configDTO.getReceiveMaximum());
+        }
+        if (configDTO.isManualAcknowledgement()) {
+            int queueCapacity = SettingsProvider.getInstance().getSettings().getIngestQueueCapacity();
+            return Math.max(1, Math.min(MAX_RECEIVE_MAXIMUM, queueCapacity));
+        }
+        return 0;
+    }
+
     abstract Logger getLogger();
 
     public Set<SubscriptionDTO> getSubscriptions() {
@@ -234,6 +253,10 @@ abstract class BaseCorreoMqttClient implements CorreoMqttClient, MqttClientDisco
             triedReconnects.incrementAndGet();
         } else {
             getLogger().error(MarkerFactory.getMarker(configDTO.getName()), "Maximum number of reconnects reached.");
+            CorreoMqttConnection connection = ConnectionHolder.getInstance().getConnection(configDTO.getId());
+            if (connection != null) {
+                connection.shutdownIngestPipeline();
+            }
             ConnectionLifecycleDispatcher.getInstance().onConnectionFailed(configDTO.getId(), new CorreoMqttNoRetriesLeftException());
 
         }
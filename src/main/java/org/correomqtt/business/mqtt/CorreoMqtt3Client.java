@@ -16,6 +16,7 @@ import com.hivemq.client.mqtt.mqtt3.Mqtt3ClientBuilder;
 import com.hivemq.client.mqtt.mqtt3.message.Mqtt3ReturnCode;
 import com.hivemq.client.mqtt.mqtt3.message.connect.Mqtt3ConnectBuilder;
 import com.hivemq.client.mqtt.mqtt3.message.connect.connack.Mqtt3ConnAck;
+import com.hivemq.client.mqtt.mqtt3.message.publish.Mqtt3Publish;
 import com.hivemq.client.mqtt.mqtt3.message.subscribe.suback.Mqtt3SubAck;
 import com.hivemq.client.mqtt.mqtt3.message.subscribe.suback.Mqtt3SubAckReturnCode;
 import lombok.Getter;
@@ -143,7 +144,8 @@ class CorreoMqtt3Client extends BaseCorreoMqttClient {
         Mqtt3SubAck subAck = getCheckedAsyncClient().subscribeWith()
                                                     .topicFilter(subscriptionDTO.getTopic())
                                                     .qos(subscriptionDTO.getQos().getMqttQos())
-                                                    .callback(mqtt3Publish -> incomingCallback.accept(new MessageDTO(mqtt3Publish)))
+                                                    .callback(mqtt3Publish -> incomingCallback.accept(toMessageDTO(mqtt3Publish)))
+                                                    .manualAcknowledgement(getConfigDTO().isManualAcknowledgement())
                                                     .send()
                                                     .get(10, TimeUnit.SECONDS);
 
@@ -154,6 +156,14 @@ class CorreoMqtt3Client extends BaseCorreoMqttClient {
         }
     }
 
+    private MessageDTO toMessageDTO(Mqtt3Publish mqtt3Publish) {
+        MessageDTO messageDTO = new MessageDTO(mqtt3Publish);
+        if (getConfigDTO().isManualAcknowledgement()) {
+            messageDTO.setAcknowledgement(mqtt3Publish::acknowledge);
+        }
+        return messageDTO;
+    }
+
     @Override
     void doDisconnect() {
         getCheckedClient().disconnect();
@@ -15,6 +15,7 @@ import com.hivemq.client.mqtt.mqtt5.Mqtt5BlockingClient;
 import com.hivemq.client.mqtt.mqtt5.Mqtt5ClientBuilder;
 import com.hivemq.client.mqtt.mqtt5.message.connect.Mqtt5ConnectBuilder;
 import com.hivemq.client.mqtt.mqtt5.message.connect.connack.Mqtt5ConnAck;
+import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5Publish;
 import com.hivemq.client.mqtt.mqtt5.message.subscribe.suback.Mqtt5SubAck;
 import com.hivemq.client.mqtt.mqtt5.message.subscribe.suback.Mqtt5SubAckReasonCode;
 import lombok.Getter;
@@ -86,6 +87,13 @@ class CorreoMqtt5Client extends BaseCorreoMqttClient {
                     .applyWillPublish();
         }
 
+        int receiveMaximum = getReceiveMaximum();
+        if (receiveMaximum > 0) {
+            connBuilder.restrictions()
+                    .receiveMaximum(receiveMaximum)
+                    .applyRestrictions();
+        }
+
         if (configDTO.getUsername() != null && configDTO.getPassword() != null &&
                 !configDTO.getUsername().isEmpty() && !configDTO.getPassword().isEmpty()) {
             connBuilder.simpleAuth()
@@ -139,7 +147,8 @@ class CorreoMqtt5Client extends BaseCorreoMqttClient {
         Mqtt5SubAck subAck = getCheckedAsyncClient().subscribeWith()
                 .topicFilter(subscriptionDTO.getTopic())
                 .qos(subscriptionDTO.getQos().getMqttQos())
-                .callback(mqtt5Publish -> incomingCallback.accept(new MessageDTO(mqtt5Publish)))
+                .callback(mqtt5Publish -> incomingCallback.accept(toMessageDTO(mqtt5Publish)))
+                .manualAcknowledgement(getConfigDTO().isManualAcknowledgement())
                 .send()
                 .get(10, TimeUnit.SECONDS);
 
@@ -151,6 +160,14 @@ class CorreoMqtt5Client extends BaseCorreoMqttClient {
         }
     }
 
+    private MessageDTO toMessageDTO(Mqtt5Publish mqtt5Publish) {
+        MessageDTO messageDTO = new MessageDTO(mqtt5Publish);
+        if (getConfigDTO().isManualAcknowledgement()) {
+            messageDTO.setAcknowledgement(mqtt5Publish::acknowledge);
+        }
+        return messageDTO;
+    }
+
     @Override
     void doDisconnect() {
         getCheckedClient().disconnect();
@@ -9,15 +9,20 @@ import org.correomqtt.business.dispatcher.PublishGlobalDispatcher;
 import org.correomqtt.business.dispatcher.PublishGlobalObserver;
 import org.correomqtt.business.model.MessageDTO;
 import org.correomqtt.business.model.PublishMessageHistoryListDTO;
+import org.correomqtt.business.utils.MessageIds;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 public class PersistPublishMessageHistoryProvider extends BasePersistHistoryProvider<PublishMessageHistoryListDTO>
         implements PublishGlobalObserver,
@@ -65,9 +70,24 @@ public class PersistPublishMessageHistoryProvider extends BasePersistHistoryProv
 
     @Override
     void setDTO(String id, PublishMessageHistoryListDTO dto) {
+        assignUniqueIds(dto.getMessages());
         historyDTOs.put(id, dto);
     }
 
+    // Ids only count up within a session, entries saved in different sessions may share one.
+    private static void assignUniqueIds(List<MessageDTO> messages) {
+        if (messages == null) {
+            return;
+        }
+        Set<Long> ids = new HashSet<>();
+        for (MessageDTO messageDTO : messages) {
+            if (messageDTO.getId() == MessageIds.NONE || !ids.add(messageDTO.getId())) {
+                messageDTO.setId(MessageIds.next());
+                ids.add(messageDTO.getId());
+            }
+        }
+    }
+
     public List<MessageDTO> getMessages(String connectionId) {
         return historyDTOs.get(connectionId).getMessages();
     }
@@ -98,10 +118,26 @@ public class PersistPublishMessageHistoryProvider extends BasePersistHistoryProv
     public void onPublishRemoved(String connectionId, MessageDTO messageDTO) {
         LOGGER.info("Removing {} from publish history for {}.", messageDTO.getTopic(), connectionId);
         List<MessageDTO> messageList = getMessages(connectionId);
-        messageList.remove(messageDTO);
+        if (messageDTO.getId() == MessageIds.NONE) {
+            messageList.remove(messageDTO);
+        } else {
+            // Ids are unique once loaded, only one entry is meant.
+            removeFirst(messageList, m -> m.getId() == messageDTO.getId());
+        }
         saveHistory(connectionId);
     }
 
+    private static boolean removeFirst(List<MessageDTO> messageList, Predicate<MessageDTO> predicate) {
+        Iterator<MessageDTO> iterator = messageList.iterator();
+        while (iterator.hasNext()) {
+            if (predicate.test(iterator.next())) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public void onPublishesCleared(String connectionId) {
         LOGGER.info("Clearing publish history for {}.", connectionId);
@@ -16,6 +16,7 @@ import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class PluginConfigProvider extends BaseUserFileProvider {
 
@@ -28,7 +29,9 @@ public class PluginConfigProvider extends BaseUserFileProvider {
 
     private static PluginConfigProvider instance = null;
 
-    private HooksDTO hooksDTO;
+    private final List<Runnable> hooksChangedListeners = new CopyOnWriteArrayList<>();
+
+    private volatile HooksDTO hooksDTO;
     private String pluginPath;
 
     private PluginConfigProvider() {
@@ -54,13 +57,7 @@ public class PluginConfigProvider extends BaseUserFileProvider {
 
         preparePluginPath();
 
-        try {
-            hooksDTO = new ObjectMapper().readValue(getFile(), HooksDTO.class);
-        } catch (IOException e) {
-            LOGGER.error("Exception parsing hooks file {}", HOOK_FILE_NAME, e);
-            ConfigDispatcher.getInstance().onInvalidJsonFormat();
-        }
-
+        readHooks();
     }
 
     public static synchronized PluginConfigProvider getInstance() {
@@ -72,6 +69,30 @@ public class PluginConfigProvider extends BaseUserFileProvider {
         }
     }
 
+    private void readHooks() {
+        try {
+            hooksDTO = new ObjectMapper().readValue(getFile(), HooksDTO.class);
+        } catch (IOException e) {
+            LOGGER.error("Exception parsing hooks file {}", HOOK_FILE_NAME, e);
+            ConfigDispatcher.getInstance().onInvalidJsonFormat();
+        }
+    }
+
+    /**
+     * Reads the hooks file again, e.g. after it was edited. Listeners are told, even if it could not be parsed.
+     */
+    public void reloadHooks() {
+        readHooks();
+        hooksChangedListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * @param listener Called after the hooks file was read again.
+     */
+    public void addHooksChangedListener(Runnable listener) {
+        hooksChangedListeners.add(listener);
+    }
+
     public List<HooksDTO.Extension> getOutgoingMessageHooks() {
         return hooksDTO.getOutgoingMessages();
     }
@@ -2,8 +2,11 @@ package org.correomqtt.business.services;
 
 import org.correomqtt.business.dispatcher.ConnectionLifecycleDispatcher;
 import org.correomqtt.business.exception.CorreoMqttExecutionException;
+import org.correomqtt.business.ingest.MessageIngestPipeline;
 import org.correomqtt.business.mqtt.CorreoMqttClient;
 import org.correomqtt.business.mqtt.CorreoMqttClientFactory;
+import org.correomqtt.business.provider.SettingsProvider;
+import org.correomqtt.business.topic.SubscriptionRouter;
 import org.correomqtt.business.utils.ConnectionHolder;
 import org.correomqtt.business.utils.CorreoMqttConnection;
 import org.slf4j.Logger;
@@ -26,6 +29,11 @@ public class ConnectService extends BaseService {
         CorreoMqttConnection connection = ConnectionHolder.getInstance().getConnection(connectionId);
         connection.setClient(CorreoMqttClientFactory.createClient(connection.getConfigDTO()));
 
+        connection.shutdownIngestPipeline();
+        connection.setIngestPipeline(MessageIngestPipeline.fromSettings(connectionId, SettingsProvider.getInstance().getSettings(),
+                connection.getIngestTimings(), connection.getIngestBacklog()));
+        connection.setSubscriptionRouter(new SubscriptionRouter());
+
         callSafeOnClient(this::connect);
     }
 
@@ -55,6 +63,7 @@ public class ConnectService extends BaseService {
     @Override
     public void onFailed(Throwable exception) {
         LOGGER.info(getConnectionMarker(), "Connecting to broker failed: ", exception);
+        getConnection().shutdownIngestPipeline();
         ConnectionLifecycleDispatcher.getInstance().onConnectionFailed(connectionId, exception);
     }
 
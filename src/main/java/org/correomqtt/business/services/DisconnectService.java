@@ -21,6 +21,8 @@ public class DisconnectService extends BaseService {
     public void onSucceeded() {
         LOGGER.info(getConnectionMarker(), "Disconnected.");
         getConnection().setClient(null);
+        getConnection().shutdownIngestPipeline();
+        getConnection().setSubscriptionRouter(null);
         ConnectionLifecycleDispatcher.getInstance().onDisconnect(connectionId);
     }
 
@@ -2,8 +2,12 @@ package org.correomqtt.business.services;
 
 import org.correomqtt.business.dispatcher.SubscribeDispatcher;
 import org.correomqtt.business.exception.CorreoMqttExecutionException;
+import org.correomqtt.business.ingest.MessageIngestPipeline;
+import org.correomqtt.business.model.MessageDTO;
 import org.correomqtt.business.model.SubscriptionDTO;
 import org.correomqtt.business.mqtt.CorreoMqttClient;
+import org.correomqtt.business.topic.SubscriptionRouter;
+import org.correomqtt.business.topic.TopicDictionary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,10 +32,34 @@ public class SubscribeService extends BaseService {
 
     private void subscribe(CorreoMqttClient client, SubscriptionDTO subscriptionDTO) {
 
+        MessageIngestPipeline ingestPipeline = getConnection().getIngestPipeline();
+        SubscriptionRouter subscriptionRouter = getConnection().getSubscriptionRouter();
+        TopicDictionary topicDictionary = getConnection().getTopicDictionary();
+
+        if (subscriptionRouter != null) {
+            subscriptionRouter.add(subscriptionDTO);
+        }
+
         try {
-            client.subscribe(subscriptionDTO, (messageDTO ->
-                    SubscribeDispatcher.getInstance().onMessageIncoming(connectionId, messageDTO, subscriptionDTO))
-            );
+            if (ingestPipeline == null) {
+                client.subscribe(subscriptionDTO, (messageDTO -> {
+                    messageDTO.acknowledge();
+                    internTopic(topicDictionary, messageDTO);
+                    if (isPrimaryRoute(subscriptionRouter, messageDTO)) {
+                        SubscribeDispatcher.getInstance().onMessageIncoming(connectionId, messageDTO, subscriptionDTO);
+                    }
+                }));
+            } else {
+                ingestPipeline.register(subscriptionDTO);
+                client.subscribe(subscriptionDTO, (messageDTO -> {
+                    internTopic(topicDictionary, messageDTO);
+                    if (isPrimaryRoute(subscriptionRouter, messageDTO)) {
+                        ingestPipeline.offer(messageDTO, subscriptionDTO);
+                    } else {
+                        messageDTO.acknowledge();
+                    }
+                }));
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new CorreoMqttExecutionException(e);
@@ -41,6 +69,23 @@ public class SubscribeService extends BaseService {
 
     }
 
+    // Messages of one topic share the topic string from here on.
+    private static void internTopic(TopicDictionary topicDictionary, MessageDTO messageDTO) {
+        if (topicDictionary == null) {
+            return;
+        }
+        int topicId = topicDictionary.intern(messageDTO.getTopic());
+        if (topicId != TopicDictionary.NO_ID) {
+            messageDTO.setTopic(topicDictionary.getTopic(topicId));
+            messageDTO.setTopicId(topicId);
+        }
+    }
+
+    // Overlapping subscriptions all receive the message, only the primary one passes it on.
+    private boolean isPrimaryRoute(SubscriptionRouter subscriptionRouter, MessageDTO messageDTO) {
+        return subscriptionRouter == null || subscriptionRouter.isPrimary(messageDTO.getTopic(), subscriptionDTO);
+    }
+
     @Override
     public void onSucceeded() {
         LOGGER.info(getConnectionMarker(), "Successful subscription to {}", subscriptionDTO.getTopic());
@@ -56,6 +101,10 @@ public class SubscribeService extends BaseService {
     @Override
     public void onFailed(Throwable exception) {
         LOGGER.info(getConnectionMarker(), "Subscription to {} failed", subscriptionDTO.getTopic(), exception);
+        SubscriptionRouter subscriptionRouter = getConnection().getSubscriptionRouter();
+        if (subscriptionRouter != null) {
+            subscriptionRouter.remove(subscriptionDTO);
+        }
         SubscribeDispatcher.getInstance().onSubscribedFailed(connectionId, subscriptionDTO, exception);
 
     }
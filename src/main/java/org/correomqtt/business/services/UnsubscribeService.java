@@ -1,7 +1,9 @@
 package org.correomqtt.business.services;
 
 import org.correomqtt.business.dispatcher.UnsubscribeDispatcher;
+import org.correomqtt.business.ingest.MessageIngestPipeline;
 import org.correomqtt.business.model.SubscriptionDTO;
+import org.correomqtt.business.topic.SubscriptionRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,7 +20,19 @@ public class UnsubscribeService extends BaseService {
 
     public void unsubscribe() {
         LOGGER.info(getConnectionMarker(), "Start unsubscribing to topic: {}", subscriptionDTO.getTopic());
+
+        // Let overlapping subscriptions take over the messages of this one right away.
+        SubscriptionRouter subscriptionRouter = getConnection().getSubscriptionRouter();
+        if (subscriptionRouter != null) {
+            subscriptionRouter.remove(subscriptionDTO);
+        }
+
         callSafeOnClient(client -> client.unsubscribe(subscriptionDTO));
+
+        MessageIngestPipeline ingestPipeline = getConnection().getIngestPipeline();
+        if (ingestPipeline != null) {
+            ingestPipeline.unregister(subscriptionDTO);
+        }
     }
 
     @Override
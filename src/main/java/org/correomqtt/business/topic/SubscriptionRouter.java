@@ -0,0 +1,70 @@
+package org.correomqtt.business.topic;
+
+import org.correomqtt.business.model.SubscriptionDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Routes topics to the active subscriptions of one connection whose topic filter matches.
+ * <p>
+ * With overlapping subscriptions like a/# and a/+/b the client invokes the callback of every matching subscription
+ * for the same message. Only the callback of the {@link #getPrimary(String) primary} subscription should pass the
+ * message on, so it shows up once. Hidden subscriptions are left out, they always get their messages.
+ */
+public class SubscriptionRouter {
+
+    private final TopicTrie<Route> routes = new TopicTrie<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public void add(SubscriptionDTO subscriptionDTO) {
+        routes.put(subscriptionDTO.getTopic(), new Route(subscriptionDTO, sequence.incrementAndGet()));
+    }
+
+    public void remove(SubscriptionDTO subscriptionDTO) {
+        routes.remove(subscriptionDTO.getTopic());
+    }
+
+    public List<SubscriptionDTO> route(String topic) {
+        List<SubscriptionDTO> subscriptions = new ArrayList<>(2);
+        routes.forEachMatch(topic, route -> subscriptions.add(route.subscriptionDTO));
+        return subscriptions;
+    }
+
+    /**
+     * @return The visible subscription matching the topic that was added first.
+     */
+    public SubscriptionDTO getPrimary(String topic) {
+        Route[] primary = new Route[1];
+        routes.forEachMatch(topic, route -> {
+            if (!route.subscriptionDTO.isHidden() && (primary[0] == null || route.sequence < primary[0].sequence)) {
+                primary[0] = route;
+            }
+        });
+        return primary[0] == null ? null : primary[0].subscriptionDTO;
+    }
+
+    public boolean isPrimary(String topic, SubscriptionDTO subscriptionDTO) {
+        if (subscriptionDTO.isHidden()) {
+            return true;
+        }
+        SubscriptionDTO primary = getPrimary(topic);
+        return primary == null || primary.equals(subscriptionDTO);
+    }
+
+    public int size() {
+        return routes.size();
+    }
+
+    private static final class Route {
+
+        private final SubscriptionDTO subscriptionDTO;
+        private final long sequence;
+
+        private Route(SubscriptionDTO subscriptionDTO, long sequence) {
+            this.subscriptionDTO = subscriptionDTO;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.correomqtt.business.topic;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Topics received on one connection, each with a small integer id starting at 1. Messages of one topic share the
+ * topic string and can be told apart by comparing ids. Safe to use from any thread.
+ * <p>
+ * The dictionary stops growing at {@link #MAX_TOPICS}, later topics get {@link #NO_ID} and keep their own string.
+ */
+public class TopicDictionary {
+
+    public static final int NO_ID = 0;
+
+    static final int MAX_TOPICS = 100_000;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] topics = new String[64];
+    private int size;
+
+    /**
+     * @return The id of the topic, {@link #NO_ID} for null or if the dictionary is full.
+     */
+    public int intern(String topic) {
+        if (topic == null) {
+            return NO_ID;
+        }
+
+        Integer id = ids.get(topic);
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (this) {
+            id = ids.get(topic);
+            if (id != null) {
+                return id;
+            }
+            if (size >= MAX_TOPICS) {
+                return NO_ID;
+            }
+
+            int newId = size + 1;
+            String[] current = topics;
+            if (newId >= current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[newId] = topic;
+            // Published before the id, a reader that got the id also sees the topic.
+            topics = current;
+            size = newId;
+            ids.put(topic, newId);
+            return newId;
+        }
+    }
+
+    /**
+     * @return The topic of the id, null for unknown ids.
+     */
+    public String getTopic(int id) {
+        String[] current = topics;
+        return id > NO_ID && id < current.length ? current[id] : null;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
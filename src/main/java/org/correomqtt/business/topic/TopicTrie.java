@@ -0,0 +1,208 @@
+package org.correomqtt.business.topic;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Concurrent map from topic to value, stored as a trie over the topic levels. Topics sharing a prefix share the nodes
+ * of that prefix, so memory grows with the number of distinct topics only.
+ * <p>
+ * Nodes of removed topics are kept until {@link #clear()}, they are reused as soon as the topic shows up again.
+ * <p>
+ * Keys may also be topic filters, {@link #forEachMatch(String, Consumer)} then finds every filter matching a topic
+ * with MQTT wildcard semantics, visiting at most three branches per topic level.
+ */
+public class TopicTrie<V> {
+
+    private static final String SINGLE_LEVEL_WILDCARD = "+";
+    private static final String MULTI_LEVEL_WILDCARD = "#";
+
+    private volatile Node<V> root = new Node<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public V get(String topic) {
+        Node<V> node = find(topic);
+        return node == null ? null : node.value;
+    }
+
+    public V put(String topic, V value) {
+        Node<V> node = findOrCreate(topic);
+        synchronized (node) {
+            V previous = node.value;
+            node.value = value;
+            if (previous == null) {
+                size.incrementAndGet();
+            }
+            return previous;
+        }
+    }
+
+    public V computeIfAbsent(String topic, Function<String, ? extends V> factory) {
+        Node<V> node = findOrCreate(topic);
+        V value = node.value;
+        if (value != null) {
+            return value;
+        }
+        synchronized (node) {
+            if (node.value == null) {
+                node.value = factory.apply(topic);
+                size.incrementAndGet();
+            }
+            return node.value;
+        }
+    }
+
+    public V remove(String topic) {
+        Node<V> node = find(topic);
+        if (node == null) {
+            return null;
+        }
+        synchronized (node) {
+            V previous = node.value;
+            node.value = null;
+            if (previous != null) {
+                size.decrementAndGet();
+            }
+            return previous;
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public void clear() {
+        root = new Node<>();
+        size.set(0);
+    }
+
+    public void forEach(Consumer<V> consumer) {
+        forEach(root, consumer);
+    }
+
+    /**
+     * Visits the values of all keys that, read as topic filter, match the given topic.
+     */
+    public void forEachMatch(String topic, Consumer<V> consumer) {
+        match(root, topic, 0, value -> {
+            consumer.accept(value);
+            return false;
+        });
+    }
+
+    public boolean hasMatch(String topic) {
+        return match(root, topic, 0, value -> true);
+    }
+
+    // The visitor returns true to stop matching.
+    private boolean match(Node<V> node, String topic, int start, Predicate<V> visitor) {
+        Map<String, Node<V>> children = node.children;
+        if (children == null) {
+            return false;
+        }
+
+        // Wildcards on the first level do not match topics starting with $, e.g. $SYS.
+        boolean wildcards = start > 0 || !topic.startsWith("$");
+
+        if (wildcards && visit(children.get(MULTI_LEVEL_WILDCARD), visitor)) {
+            return true;
+        }
+
+        int end = levelEnd(topic, start);
+        return matchLevel(children.get(topic.substring(start, end)), topic, end, visitor)
+                || (wildcards && matchLevel(children.get(SINGLE_LEVEL_WILDCARD), topic, end, visitor));
+    }
+
+    private boolean matchLevel(Node<V> node, String topic, int end, Predicate<V> visitor) {
+        if (node == null) {
+            return false;
+        }
+        if (end < topic.length()) {
+            return match(node, topic, end + 1, visitor);
+        }
+        if (visit(node, visitor)) {
+            return true;
+        }
+
+        // a/# matches a as well.
+        Map<String, Node<V>> children = node.children;
+        return children != null && visit(children.get(MULTI_LEVEL_WILDCARD), visitor);
+    }
+
+    private boolean visit(Node<V> node, Predicate<V> visitor) {
+        if (node == null) {
+            return false;
+        }
+        V value = node.value;
+        return value != null && visitor.test(value);
+    }
+
+    private void forEach(Node<V> node, Consumer<V> consumer) {
+        V value = node.value;
+        if (value != null) {
+            consumer.accept(value);
+        }
+        Map<String, Node<V>> children = node.children;
+        if (children != null) {
+            children.values().forEach(child -> forEach(child, consumer));
+        }
+    }
+
+    private Node<V> find(String topic) {
+        Node<V> node = root;
+        int start = 0;
+        while (node != null) {
+            int end = levelEnd(topic, start);
+            Map<String, Node<V>> children = node.children;
+            node = children == null ? null : children.get(topic.substring(start, end));
+            if (end == topic.length()) {
+                return node;
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    private Node<V> findOrCreate(String topic) {
+        Node<V> node = root;
+        int start = 0;
+        while (true) {
+            int end = levelEnd(topic, start);
+            node = node.child(topic.substring(start, end));
+            if (end == topic.length()) {
+                return node;
+            }
+            start = end + 1;
+        }
+    }
+
+    private static int levelEnd(String topic, int start) {
+        int end = topic.indexOf('/', start);
+        return end < 0 ? topic.length() : end;
+    }
+
+    private static final class Node<V> {
+
+        // Created on first child, most nodes are leaves.
+        private volatile Map<String, Node<V>> children;
+        private volatile V value;
+
+        private Node<V> child(String level) {
+            Map<String, Node<V>> current = children;
+            if (current == null) {
+                synchronized (this) {
+                    current = children;
+                    if (current == null) {
+                        current = new ConcurrentHashMap<>(4);
+                        children = current;
+                    }
+                }
+            }
+            return current.computeIfAbsent(level, l -> new Node<>());
+        }
+    }
+}
@@ -1,79 +1,119 @@
 package org.correomqtt.business.utils;
 
 import javafx.beans.value.ChangeListener;
-import org.correomqtt.gui.formats.Format;
+import org.correomqtt.gui.formats.FormattedPayload;
+import org.correomqtt.gui.formats.PayloadFormat;
 import org.correomqtt.gui.formats.Plain;
+import org.correomqtt.gui.formats.ViewportHighlighter;
 import org.correomqtt.plugin.manager.PluginManager;
-import org.correomqtt.plugin.spi.DetailViewFormatHook;
 import org.fxmisc.richtext.CodeArea;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.util.ArrayList;
-import java.util.Objects;
+import java.util.List;
 
 public class AutoFormatPayload {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AutoFormatPayload.class);
 
+    private static final PayloadFormat PLAIN = new Plain();
+
     private AutoFormatPayload() {
         // private Constructor
     }
 
-    public static Format autoFormatPayload(final String payload, boolean doFormatting, String connectionId, CodeArea codeArea) {
+    public static FormattedPayload autoFormatPayload(final String payload, boolean doFormatting, String connectionId, CodeArea codeArea) {
         return autoFormatPayload(payload, doFormatting, connectionId, codeArea, null);
     }
 
-    public static Format autoFormatPayload(final String payload, boolean doFormatting, String connectionId, CodeArea codeArea, ChangeListener<String> listener) {
+    public static FormattedPayload autoFormatPayload(final String payload, boolean doFormatting, String connectionId, CodeArea codeArea, ChangeListener<String> listener) {
 
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Auto formatting payload: {}", connectionId);
         }
 
-        Format foundFormat;
-        if (doFormatting) {
-            // Find the first format that is valid.
-            ArrayList<Format> availableFormats = new ArrayList<>(PluginManager.getInstance().getExtensions(DetailViewFormatHook.class));
-            availableFormats.add(new Plain());
-            foundFormat = availableFormats.stream()
-                    .filter(Objects::nonNull)
-                    .filter(format -> {
-                                try {
-                                    format.setText(payload);
-                                    return format.isValid();
-                                }catch(Exception e){
-                                    LOGGER.error("Formatting check failed. ",e);
-                                    return false;
-                                }
-                            }
-                    )
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalArgumentException("Plain format did not match."));
-        } else {
-            foundFormat = new Plain();
-            foundFormat.setText(payload);
+        return show(payload, format(payload, doFormatting), codeArea, listener);
+    }
+
+    /**
+     * Formats the payload with the first valid plugin format, plain if none is. Only formats passing their cheap
+     * {@link PayloadFormat#mayFormat(String)} check are tried, one after the other until one is valid. Does not touch
+     * the UI, may be called on any thread.
+     */
+    public static FormattedPayload format(final String payload, boolean doFormatting) {
+        if (!doFormatting) {
+            return PLAIN.format(payload);
+        }
+
+        List<PayloadFormat> formats = PluginManager.getInstance().getPayloadFormats();
+        if (formats.isEmpty()) {
+            return PLAIN.format(payload);
         }
 
+        for (PayloadFormat format : formats) {
+            if (mayFormat(format, payload)) {
+                FormattedPayload formattedPayload = tryFormat(format, payload);
+                if (formattedPayload.isValid()) {
+                    return formattedPayload;
+                }
+            }
+        }
+        return PLAIN.format(payload);
+    }
+
+    private static boolean mayFormat(PayloadFormat format, String payload) {
+        try {
+            return format.mayFormat(payload);
+        } catch (Exception e) {
+            LOGGER.error("Checking the format with {} failed. ", format.getClass().getSimpleName(), e);
+            return false;
+        }
+    }
+
+    private static FormattedPayload tryFormat(PayloadFormat format, String payload) {
+        try {
+            FormattedPayload formattedPayload = format.format(payload);
+            return formattedPayload == null ? FormattedPayload.INVALID : formattedPayload;
+        } catch (Exception e) {
+            LOGGER.error("Formatting with {} failed. ", format.getClass().getSimpleName(), e);
+            return FormattedPayload.INVALID;
+        }
+    }
+
+    /**
+     * Shows the formatted payload, or the plain payload if the format produced text or styles that do not fit.
+     *
+     * @return What is shown.
+     */
+    public static FormattedPayload show(String payload, FormattedPayload formattedPayload, CodeArea codeArea, ChangeListener<String> listener) {
+
         //ChangeListener<String> listener is needed to disable it when the text of the PublishCodeArea changes. It is reenabled after the manipulation.
         if (listener != null) {
             codeArea.textProperty().removeListener(listener);
         }
 
-        codeArea.clear();
+        FormattedPayload shown = formattedPayload;
         try {
-            codeArea.replaceText(0, 0, foundFormat.getPrettyString());
-            codeArea.setStyleSpans(0, foundFormat.getFxSpans());
-        }catch(Exception e){
-            LOGGER.error("Formatter failed. ",e);
-            foundFormat = new Plain();
-            foundFormat.setText(payload);
-            codeArea.replaceText(0, 0, foundFormat.getPrettyString());
-            codeArea.setStyleSpans(0, foundFormat.getFxSpans());
+            replace(codeArea, shown);
+        } catch (Exception e) {
+            LOGGER.error("Formatter failed. ", e);
+            shown = PLAIN.format(payload);
+            replace(codeArea, shown);
         }
 
         if (listener != null) {
             codeArea.textProperty().addListener(listener);
         }
-        return foundFormat;
+        return shown;
+    }
 
+    private static void replace(CodeArea codeArea, FormattedPayload formattedPayload) {
+        ViewportHighlighter.uninstall(codeArea);
+        codeArea.clear();
+        codeArea.replaceText(0, 0, formattedPayload.getPrettyString());
+        if (ViewportHighlighter.isNeeded(formattedPayload)) {
+            ViewportHighlighter.install(codeArea, formattedPayload);
+        } else if (formattedPayload.getFxSpans() != null) {
+            codeArea.setStyleSpans(0, formattedPayload.getFxSpans());
+        }
     }
 }
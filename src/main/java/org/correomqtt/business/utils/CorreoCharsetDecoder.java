@@ -4,8 +4,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
-import java.nio.charset.CharacterCodingException;
+import java.nio.CharBuffer;
 import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 
@@ -13,24 +14,162 @@ public class CorreoCharsetDecoder {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CorreoCharsetDecoder.class);
 
+    private static final String REPLACEMENT = "?";
+    private static final int INITIAL_SCRATCH_SIZE = 1024;
+    private static final int MAX_RETAINED_SCRATCH_SIZE = 256 * 1024;
+
+    private static final ThreadLocal<DecoderState> DECODER_STATE = ThreadLocal.withInitial(DecoderState::new);
+
     private CorreoCharsetDecoder() {
         // private Constructor
     }
 
     public static String decode(byte[] input) {
+        return decode(ByteBuffer.wrap(input));
+    }
+
+    public static String decode(ByteBuffer input) {
 
         // Currently only UTF-8 is supported. Later we may provide support for other charsets via UI.
 
-        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
-        decoder.onMalformedInput(CodingErrorAction.REPLACE)
-               .onUnmappableCharacter(CodingErrorAction.REPLACE)
-               .replaceWith("?");
+        int length = input.remaining();
+        if (length == 0) {
+            return "";
+        }
+
+        DecoderState state = DECODER_STATE.get();
+
+        byte[] bytes;
+        int offset;
+        if (input.hasArray()) {
+            bytes = input.array();
+            offset = input.arrayOffset() + input.position();
+        } else {
+            bytes = state.bytes(length);
+            offset = 0;
+            input.duplicate().get(bytes, 0, length);
+        }
+
+        if (isAscii(bytes, offset, length)) {
+            return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+        }
+
+        // UTF-8 never yields more chars than bytes.
+        CharBuffer output = state.chars(length);
+        decode(state.decoder, ByteBuffer.wrap(bytes, offset, length), output);
+        return new String(output.array(), 0, output.position());
+    }
+
+    /**
+     * Decodes as much of the input as fits into the output. Advances both buffers.
+     */
+    public static void decode(ByteBuffer input, CharBuffer output) {
+        while (input.hasRemaining() && output.hasRemaining()) {
+            byte b = input.get(input.position());
+            if (b < 0) {
+                break;
+            }
+            output.put((char) b);
+            input.position(input.position() + 1);
+        }
+
+        if (input.hasRemaining() && output.hasRemaining()) {
+            decode(DECODER_STATE.get().decoder, input, output);
+        }
+    }
 
-        try {
-            return decoder.decode(ByteBuffer.wrap(input)).toString();
-        } catch (CharacterCodingException e) {
+    /**
+     * Single line preview of at most maxLength chars, only the needed prefix of the input is decoded.
+     */
+    public static String decodePreview(ByteBuffer input, int maxLength) {
+        CharBuffer output = DECODER_STATE.get().chars(maxLength);
+        decode(input.duplicate(), output);
+        return toPreview(output.array(), output.position());
+    }
+
+    /**
+     * Decodes at most maxLength chars from the start of the input, without touching the input.
+     */
+    public static String decodePrefix(ByteBuffer input, int maxLength) {
+        CharBuffer output = DECODER_STATE.get().chars(maxLength);
+        decode(input.duplicate(), output);
+        return new String(output.array(), 0, output.position());
+    }
+
+    public static String toPreview(String text, int maxLength) {
+        int length = Math.min(text.length(), maxLength);
+        CharBuffer output = DECODER_STATE.get().chars(length);
+        text.getChars(0, length, output.array(), 0);
+        return toPreview(output.array(), length);
+    }
+
+    private static String toPreview(char[] chars, int length) {
+        int start = 0;
+        int end = length;
+        for (int i = 0; i < end; i++) {
+            if (chars[i] == '\n' || chars[i] == '\r') {
+                chars[i] = ' ';
+            }
+        }
+        while (start < end && chars[start] <= ' ') {
+            start++;
+        }
+        while (end > start && chars[end - 1] <= ' ') {
+            end--;
+        }
+        return new String(chars, start, end - start);
+    }
+
+    private static void decode(CharsetDecoder decoder, ByteBuffer input, CharBuffer output) {
+        decoder.reset();
+        CoderResult result = decoder.decode(input, output, true);
+        if (result.isUnderflow()) {
+            result = decoder.flush(output);
+        }
+        if (result.isError()) {
             LOGGER.warn("Unable to decode input byte array to string.");
-            return "?";
+        }
+    }
+
+    private static boolean isAscii(byte[] bytes, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            if (bytes[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class DecoderState {
+
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                                                                     .onMalformedInput(CodingErrorAction.REPLACE)
+                                                                     .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                                                                     .replaceWith(REPLACEMENT);
+        private byte[] bytes = new byte[INITIAL_SCRATCH_SIZE];
+        private CharBuffer chars = CharBuffer.allocate(INITIAL_SCRATCH_SIZE);
+
+        // Scratch buffers are kept per thread, but huge payloads get a one-off buffer to not pin memory.
+        private byte[] bytes(int size) {
+            if (size > MAX_RETAINED_SCRATCH_SIZE) {
+                return new byte[size];
+            }
+            if (bytes.length < size) {
+                bytes = new byte[Math.min(MAX_RETAINED_SCRATCH_SIZE, Math.max(size, bytes.length * 2))];
+            }
+            return bytes;
+        }
+
+        private CharBuffer chars(int size) {
+            if (size > MAX_RETAINED_SCRATCH_SIZE) {
+                return CharBuffer.allocate(size);
+            }
+            if (chars.capacity() < size) {
+                chars = CharBuffer.allocate(Math.min(MAX_RETAINED_SCRATCH_SIZE, Math.max(size, chars.capacity() * 2)));
+            }
+            chars.clear();
+            chars.limit(size);
+            return chars;
         }
     }
 }
@@ -1,7 +1,12 @@
 package org.correomqtt.business.utils;
 
+import org.correomqtt.business.ingest.IngestBacklog;
+import org.correomqtt.business.ingest.IngestTimings;
+import org.correomqtt.business.ingest.MessageIngestPipeline;
 import org.correomqtt.business.model.ConnectionConfigDTO;
 import org.correomqtt.business.mqtt.CorreoMqttClient;
+import org.correomqtt.business.topic.SubscriptionRouter;
+import org.correomqtt.business.topic.TopicDictionary;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -20,6 +25,23 @@ public class CorreoMqttConnection {
     private int sort;
     private ConnectionConfigDTO configDTO;
     private CorreoMqttClient client;
+    private MessageIngestPipeline ingestPipeline;
+    private SubscriptionRouter subscriptionRouter;
+    // Kept over reconnects, unlike the pipeline.
+    private final IngestTimings ingestTimings = new IngestTimings();
+    private final TopicDictionary topicDictionary = new TopicDictionary();
+    private final IngestBacklog ingestBacklog = new IngestBacklog();
+
+    /**
+     * Stops the workers of the ingest pipeline, messages still queued are dropped.
+     */
+    public void shutdownIngestPipeline() {
+        MessageIngestPipeline pipeline = ingestPipeline;
+        ingestPipeline = null;
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
 
     public CorreoMqttConnection(ConnectionConfigDTO configDTO, int sort){
         this.sort = sort;
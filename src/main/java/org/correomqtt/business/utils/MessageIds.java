@@ -0,0 +1,51 @@
+package org.correomqtt.business.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Message ids of this session. An id is a positive long, the upper bits are taken from the session start, the lower
+ * bits count up with every message. Ids of one session sort by creation order and are only turned into a string for
+ * export, import and plugins.
+ */
+public class MessageIds {
+
+    public static final long NONE = 0;
+
+    private static final int SEQUENCE_BITS = 40;
+    private static final long SESSION_MASK = (1L << (Long.SIZE - 1 - SEQUENCE_BITS)) - 1;
+
+    private static final long SESSION_PREFIX = ((System.currentTimeMillis() / 1000) & SESSION_MASK) << SEQUENCE_BITS;
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private MessageIds() {
+        // private constructor
+    }
+
+    public static long next() {
+        return SESSION_PREFIX | SEQUENCE.incrementAndGet();
+    }
+
+    public static String toString(long id) {
+        return id == NONE ? null : Long.toString(id);
+    }
+
+    /**
+     * @return The id the string was created from. Strings of other formats, e.g. the UUIDs used by older versions, get
+     * a new id. {@link #NONE} for null.
+     */
+    public static long fromString(String id) {
+        if (id == null || id.isEmpty()) {
+            return NONE;
+        }
+
+        try {
+            long parsed = Long.parseLong(id);
+            if (parsed > NONE) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // not one of ours
+        }
+        return next();
+    }
+}
@@ -0,0 +1,117 @@
+package org.correomqtt.gui.business;
+
+import org.correomqtt.business.ingest.IngestStage;
+import org.correomqtt.business.ingest.IngestTimings;
+import org.correomqtt.gui.model.MessagePropertiesDTO;
+import org.correomqtt.plugin.manager.HookChain;
+import org.correomqtt.plugin.manager.HookExecutor;
+import org.correomqtt.plugin.manager.PluginManager;
+import org.correomqtt.plugin.model.MessageExtensionDTO;
+import org.correomqtt.plugin.spi.BatchIncomingMessageHook;
+import org.correomqtt.plugin.spi.IncomingMessageHook;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs the incoming message hooks of one message list on a {@link HookExecutor.Lane}. Messages arriving while the
+ * hooks are busy are collected and passed on as one batch, so a {@link BatchIncomingMessageHook} sees about as many
+ * messages per call as the list takes per flush.
+ * <p>
+ * Messages keep their order, also when the hooks fall behind. The number of messages waiting here is limited by the
+ * {@link org.correomqtt.business.ingest.IngestBacklog} of the connection.
+ */
+public class IncomingMessageHookStage {
+
+    private final Supplier<String> connectionId;
+    private final IntSupplier batchSize;
+    private final Consumer<MessagePropertiesDTO> next;
+    private final IngestTimings timings;
+    private final HookExecutor.Lane lane = HookExecutor.getInstance().newLane();
+    private final Queue<MessagePropertiesDTO> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    /**
+     * @param batchSize Maximum number of messages per hook invocation.
+     * @param next      Receives the processed messages, on the hook lane.
+     * @param timings   Records the time spent in the hooks.
+     */
+    public IncomingMessageHookStage(Supplier<String> connectionId, IntSupplier batchSize, Consumer<MessagePropertiesDTO> next,
+                                    IngestTimings timings) {
+        this.connectionId = connectionId;
+        this.batchSize = batchSize;
+        this.next = next;
+        this.timings = timings;
+    }
+
+    public void offer(MessagePropertiesDTO messageDTO) {
+        // Messages still waiting for hooks that were just removed must not be overtaken.
+        if (!scheduled.get() && PluginManager.getInstance().getIncomingMessageHookChain().isEmpty()) {
+            next.accept(messageDTO);
+            return;
+        }
+
+        pendingCount.incrementAndGet();
+        pending.offer(messageDTO);
+        if (scheduled.compareAndSet(false, true) && !lane.offer(this::drain)) {
+            scheduled.set(false);
+        }
+    }
+
+    // One batch per lane task, so other lanes get their turn in between.
+    private void drain() {
+        List<MessagePropertiesDTO> batch = poll(Math.max(1, batchSize.getAsInt()));
+        if (!batch.isEmpty()) {
+            process(batch);
+        }
+
+        if (pending.isEmpty()) {
+            scheduled.set(false);
+            // A producer may have enqueued between the poll and resetting the flag.
+            if (pending.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+        if (!lane.offer(this::drain)) {
+            scheduled.set(false);
+        }
+    }
+
+    private List<MessagePropertiesDTO> poll(int limit) {
+        List<MessagePropertiesDTO> batch = new ArrayList<>(Math.min(limit, pendingCount.get()));
+        MessagePropertiesDTO messageDTO;
+        while (batch.size() < limit && (messageDTO = pending.poll()) != null) {
+            batch.add(messageDTO);
+        }
+        pendingCount.addAndGet(-batch.size());
+        return batch;
+    }
+
+    private void process(List<MessagePropertiesDTO> batch) {
+        HookChain<IncomingMessageHook> hookChain = PluginManager.getInstance().getIncomingMessageHookChain();
+        String id = connectionId.get();
+        long start = System.nanoTime();
+
+        List<MessageExtensionDTO> messages = new ArrayList<>(batch.size());
+        batch.forEach(messageDTO -> messages.add(new MessageExtensionDTO(messageDTO)));
+
+        List<MessageExtensionDTO> results = hookChain.executeBatch(messages,
+                (hook, message) -> hook.onMessageIncoming(id, message),
+                (hook, batchMessages) -> hook instanceof BatchIncomingMessageHook
+                        ? ((BatchIncomingMessageHook) hook).onMessagesIncoming(id, batchMessages)
+                        : null);
+        timings.record(IngestStage.HOOKS, System.nanoTime() - start, batch.size());
+
+        for (int i = 0; i < batch.size(); i++) {
+            next.accept(results.get(i).merge(batch.get(i)));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.correomqtt.gui.business;
+
+import javafx.animation.AnimationTimer;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import org.correomqtt.gui.model.MessagePropertiesDTO;
+import org.correomqtt.gui.utils.PlatformUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Collects messages from any thread and hands them to the FX thread as one batch per pulse. The batch size adapts to
+ * the time the flush takes, so a burst is spread over several frames instead of freezing the UI.
+ */
+public class MessageIngestBuffer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageIngestBuffer.class);
+
+    private static final long FLUSH_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(8);
+    private static final int INITIAL_BATCH_SIZE = 500;
+    private static final int MIN_BATCH_SIZE = 50;
+    private static final int MAX_BATCH_SIZE = 20000;
+    private static final int BACKLOG_WARN_THRESHOLD = 10000;
+
+    private final Queue<MessagePropertiesDTO> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger backlog = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final ReadOnlyIntegerWrapper backlogProperty = new ReadOnlyIntegerWrapper(0);
+    private final Consumer<List<MessagePropertiesDTO>> flushConsumer;
+    private final AnimationTimer timer;
+
+    private int batchSize = INITIAL_BATCH_SIZE;
+    private boolean fallingBehind;
+
+    public MessageIngestBuffer(Consumer<List<MessagePropertiesDTO>> flushConsumer) {
+        this.flushConsumer = flushConsumer;
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                onPulse();
+            }
+        };
+    }
+
+    public void offer(MessagePropertiesDTO messageDTO) {
+        backlog.incrementAndGet();
+        queue.offer(messageDTO);
+        if (scheduled.compareAndSet(false, true)) {
+            PlatformUtils.runLaterIfNotInFxThread(timer::start);
+        }
+    }
+
+    /**
+     * @return The number of messages that were discarded.
+     */
+    public int clear() {
+        int dropped = 0;
+        while (queue.poll() != null) {
+            dropped++;
+        }
+        backlog.addAndGet(-dropped);
+        return dropped;
+    }
+
+    public int getBacklog() {
+        return Math.max(0, backlog.get());
+    }
+
+    public ReadOnlyIntegerProperty backlogProperty() {
+        return backlogProperty.getReadOnlyProperty();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    private void onPulse() {
+        int limit = batchSize;
+        List<MessagePropertiesDTO> batch = new ArrayList<>(Math.min(limit, getBacklog()));
+        MessagePropertiesDTO messageDTO;
+        while (batch.size() < limit && (messageDTO = queue.poll()) != null) {
+            batch.add(messageDTO);
+        }
+
+        int remaining = Math.max(0, backlog.addAndGet(-batch.size()));
+
+        if (!batch.isEmpty()) {
+            long start = System.nanoTime();
+            flushConsumer.accept(batch);
+            adaptBatchSize(System.nanoTime() - start, batch.size(), remaining);
+        }
+
+        backlogProperty.set(remaining);
+        logBacklog(remaining);
+
+        if (remaining == 0) {
+            timer.stop();
+            scheduled.set(false);
+            // A producer may have enqueued between the poll and resetting the flag.
+            if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+                timer.start();
+            }
+        }
+    }
+
+    private void adaptBatchSize(long flushNanos, int flushed, int remaining) {
+        if (flushNanos > FLUSH_BUDGET_NANOS) {
+            batchSize = Math.max(MIN_BATCH_SIZE, batchSize / 2);
+        } else if (remaining > 0 && flushed == batchSize) {
+            batchSize = Math.min(MAX_BATCH_SIZE, batchSize + batchSize / 2);
+        }
+    }
+
+    private void logBacklog(int remaining) {
+        if (!fallingBehind && remaining > BACKLOG_WARN_THRESHOLD) {
+            fallingBehind = true;
+            LOGGER.warn("Message list is falling behind: {} messages waiting, batch size {}", remaining, batchSize);
+        } else if (fallingBehind && remaining == 0) {
+            fallingBehind = false;
+            LOGGER.info("Message list caught up.");
+        }
+    }
+}
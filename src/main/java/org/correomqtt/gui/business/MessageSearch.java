@@ -0,0 +1,292 @@
+package org.correomqtt.gui.business;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.util.Duration;
+import org.correomqtt.gui.model.MessagePropertiesDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Search over the messages of one list. Input is debounced, queries run against a {@link MessageSearchIndex} on the
+ * search thread and a newer query cancels the running one. Messages arriving while a query is shown or running are
+ * matched directly on topic and payload start, so the result stays complete. Only if that does not decide, the rest
+ * of the payload is matched on the search thread and late matches are reported one by one.
+ * <p>
+ * Index updates and queries of all lists run on the same thread, in the order they were submitted. A query therefore
+ * sees exactly the messages that were in the list when it was started. Must be used on the FX application thread.
+ */
+public class MessageSearch {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageSearch.class);
+
+    private static final Duration DEBOUNCE_DELAY = Duration.millis(200);
+
+    private static final ExecutorService SEARCH_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "correo-message-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final MessageSearchIndex index = new MessageSearchIndex();
+    private final PauseTransition debounce = new PauseTransition(DEBOUNCE_DELAY);
+    private final Runnable onResultChanged;
+    private final Predicate<MessagePropertiesDTO> onLateMatch;
+
+    private MessageSearchQuery requestedQuery = MessageSearchQuery.EMPTY;
+
+    private MessageSearchQuery shownQuery = MessageSearchQuery.EMPTY;
+    private Set<MessagePropertiesDTO> shownMatches = identitySet();
+
+    private MessageSearchQuery runningQuery;
+    private Set<MessagePropertiesDTO> runningMatches;
+    private Set<MessagePropertiesDTO> runningRemoved;
+    private Future<?> runningSearch;
+    private long generation;
+
+    /**
+     * Must be created before any other listener is added to the messages, so new messages are matched before e.g. a
+     * filtered list asks for them.
+     *
+     * @param onResultChanged Called on the FX thread whenever {@link #test(MessagePropertiesDTO)} changed for existing
+     *                        messages.
+     * @param onLateMatch     Called on the FX thread when {@link #test(MessagePropertiesDTO)} turned true for a new
+     *                        message, once the rest of its payload was matched. Returns false if the message is not in
+     *                        the list any more.
+     */
+    public MessageSearch(ObservableList<MessagePropertiesDTO> messages, Runnable onResultChanged,
+                         Predicate<MessagePropertiesDTO> onLateMatch) {
+        this.onResultChanged = onResultChanged;
+        this.onLateMatch = onLateMatch;
+        debounce.setOnFinished(event -> start(requestedQuery));
+        messages.addListener(this::onMessagesChanged);
+    }
+
+    public void search(String text, boolean ignoreCase, boolean regex) {
+        try {
+            requestedQuery = MessageSearchQuery.of(text, ignoreCase, regex);
+        } catch (PatternSyntaxException e) {
+            // Most likely still being typed, keep the last result.
+            LOGGER.debug("Invalid search pattern '{}': {}", text, e.getDescription());
+            debounce.stop();
+            return;
+        }
+
+        if (requestedQuery.isEmpty()) {
+            debounce.stop();
+            start(requestedQuery);
+        } else {
+            debounce.playFromStart();
+        }
+    }
+
+    public MessageSearchQuery getQuery() {
+        return shownQuery;
+    }
+
+    public boolean test(MessagePropertiesDTO messageDTO) {
+        return shownQuery.isEmpty() || shownMatches.contains(messageDTO);
+    }
+
+    private void start(MessageSearchQuery query) {
+        cancelRunning();
+
+        if (query.isEmpty()) {
+            show(query, identitySet());
+            return;
+        }
+
+        long searchGeneration = ++generation;
+        runningQuery = query;
+        runningMatches = identitySet();
+        runningRemoved = identitySet();
+        long start = System.nanoTime();
+
+        runningSearch = SEARCH_EXECUTOR.submit(() -> {
+            Set<MessagePropertiesDTO> matches;
+            try {
+                matches = index.search(query);
+            } catch (CancellationException e) {
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.warn("Search for '{}' failed", query.getText(), e);
+                return;
+            }
+
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Search for '{}' found {} of {} messages in {} ms", query.getText(), matches.size(),
+                        index.size(), (System.nanoTime() - start) / 1_000_000);
+            }
+
+            Platform.runLater(() -> {
+                if (searchGeneration != generation) {
+                    return;
+                }
+                matches.addAll(runningMatches);
+                matches.removeAll(runningRemoved);
+                runningQuery = null;
+                runningMatches = null;
+                runningRemoved = null;
+                runningSearch = null;
+                show(query, matches);
+            });
+        });
+    }
+
+    private void show(MessageSearchQuery query, Set<MessagePropertiesDTO> matches) {
+        shownQuery = query;
+        shownMatches = matches;
+        onResultChanged.run();
+    }
+
+    private void cancelRunning() {
+        generation++;
+        if (runningSearch != null) {
+            runningSearch.cancel(true);
+        }
+        runningQuery = null;
+        runningMatches = null;
+        runningRemoved = null;
+        runningSearch = null;
+    }
+
+    private void onMessagesChanged(ListChangeListener.Change<? extends MessagePropertiesDTO> change) {
+        if (change.getList().isEmpty()) {
+            shownMatches.clear();
+            if (runningQuery != null) {
+                runningMatches.clear();
+            }
+            SEARCH_EXECUTOR.execute(index::clear);
+            return;
+        }
+
+        List<MessagePropertiesDTO> added = new ArrayList<>();
+        List<MessagePropertiesDTO> removed = new ArrayList<>();
+        while (change.next()) {
+            if (change.wasPermutated() || change.wasUpdated() || isReplacedBySelf(change)) {
+                continue;
+            }
+            removed.addAll(change.getRemoved());
+            added.addAll(change.getAddedSubList());
+        }
+
+        if (!removed.isEmpty()) {
+            removed.forEach(shownMatches::remove);
+            if (runningQuery != null) {
+                removed.forEach(runningMatches::remove);
+                runningRemoved.addAll(removed);
+            }
+            SEARCH_EXECUTOR.execute(() -> index.removeAll(removed));
+        }
+
+        if (!added.isEmpty()) {
+            SEARCH_EXECUTOR.execute(() -> index.addAll(added));
+            matchAdded(added);
+        }
+    }
+
+    private void matchAdded(List<MessagePropertiesDTO> added) {
+        MessageSearchQuery shown = shownQuery;
+        MessageSearchQuery running = runningQuery;
+        if (shown.isEmpty() && running == null) {
+            return;
+        }
+
+        List<MessagePropertiesDTO> undecided = new ArrayList<>();
+        for (MessagePropertiesDTO messageDTO : added) {
+            String payloadStart = messageDTO.getPayloadPrefix(MessageSearchIndex.INDEXED_PAYLOAD_CHARS);
+            boolean complete = payloadStart.length() < MessageSearchIndex.INDEXED_PAYLOAD_CHARS;
+            boolean decided = shown.isEmpty() || matchStart(shown, shownMatches, messageDTO, payloadStart, complete);
+            if (running != null) {
+                decided &= matchStart(running, runningMatches, messageDTO, payloadStart, complete);
+            }
+            if (!decided) {
+                undecided.add(messageDTO);
+            }
+        }
+
+        if (!undecided.isEmpty()) {
+            SEARCH_EXECUTOR.execute(() -> matchLate(undecided, shown, running));
+        }
+    }
+
+    // Runs on the search thread, the rest of the payload is decoded here.
+    private void matchLate(List<MessagePropertiesDTO> undecided, MessageSearchQuery shown, MessageSearchQuery running) {
+        List<MessagePropertiesDTO> shownLate = new ArrayList<>();
+        List<MessagePropertiesDTO> runningLate = new ArrayList<>();
+        for (MessagePropertiesDTO messageDTO : undecided) {
+            if (!shown.isEmpty() && shown.matchesPayload(messageDTO)) {
+                shownLate.add(messageDTO);
+            }
+            if (running != null && running.matchesPayload(messageDTO)) {
+                runningLate.add(messageDTO);
+            }
+        }
+        if (shownLate.isEmpty() && runningLate.isEmpty()) {
+            return;
+        }
+
+        Platform.runLater(() -> {
+            addLate(shown, shownLate);
+            addLate(running, runningLate);
+        });
+    }
+
+    private void addLate(MessageSearchQuery query, List<MessagePropertiesDTO> late) {
+        if (query == shownQuery) {
+            for (MessagePropertiesDTO messageDTO : late) {
+                if (shownMatches.add(messageDTO) && !onLateMatch.test(messageDTO)) {
+                    shownMatches.remove(messageDTO);
+                }
+            }
+        } else if (query == runningQuery) {
+            runningMatches.addAll(late);
+        }
+    }
+
+    /**
+     * Matches topic and payload start only.
+     *
+     * @return Whether that decided, otherwise the rest of the payload needs to be matched.
+     */
+    private static boolean matchStart(MessageSearchQuery query, Set<MessagePropertiesDTO> matches,
+                                      MessagePropertiesDTO messageDTO, String payloadStart, boolean complete) {
+        if (query.matches(messageDTO.getTopic()) || query.matchesPayloadStart(payloadStart, complete)) {
+            matches.add(messageDTO);
+            return true;
+        }
+        return complete;
+    }
+
+    // The stores replace a message by itself to have it shown again, it stays indexed and matched.
+    private static boolean isReplacedBySelf(ListChangeListener.Change<? extends MessagePropertiesDTO> change) {
+        if (!change.wasReplaced() || change.getRemovedSize() != change.getAddedSize()) {
+            return false;
+        }
+        List<? extends MessagePropertiesDTO> removed = change.getRemoved();
+        for (int i = 0; i < removed.size(); i++) {
+            if (removed.get(i) != change.getList().get(change.getFrom() + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<MessagePropertiesDTO> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
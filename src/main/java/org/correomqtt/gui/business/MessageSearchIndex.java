@@ -0,0 +1,219 @@
+package org.correomqtt.gui.business;
+
+import org.correomqtt.gui.model.MessagePropertiesDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Trigram index over topic and payload start of the messages in one list. Each trigram maps to the ascending ids of
+ * the messages containing it, a substring query only needs to check the messages that contain all of its trigrams.
+ * <p>
+ * Not thread safe, {@link MessageSearch} confines it to the search thread.
+ */
+class MessageSearchIndex {
+
+    // Bounds the index size per message, messages with longer payloads are always checked directly.
+    static final int INDEXED_PAYLOAD_CHARS = 256;
+
+    private static final int MIN_COMPACT_SIZE = 4096;
+    private static final int CANCEL_CHECK_MASK = 0xFFF;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<MessagePropertiesDTO, Integer> ids = new IdentityHashMap<>();
+    private final BitSet partial = new BitSet();
+    private MessagePropertiesDTO[] messages = new MessagePropertiesDTO[1024];
+    private int nextId;
+
+    void addAll(Collection<MessagePropertiesDTO> added) {
+        added.forEach(this::add);
+    }
+
+    void removeAll(Collection<MessagePropertiesDTO> removed) {
+        for (MessagePropertiesDTO messageDTO : removed) {
+            Integer id = ids.remove(messageDTO);
+            if (id != null) {
+                messages[id] = null;
+                partial.clear(id);
+            }
+        }
+
+        // Postings of removed messages are only skipped, rebuild once they make up most of the index.
+        if (nextId >= MIN_COMPACT_SIZE && ids.size() < nextId / 2) {
+            compact();
+        }
+    }
+
+    void clear() {
+        postings.clear();
+        ids.clear();
+        partial.clear();
+        messages = new MessagePropertiesDTO[1024];
+        nextId = 0;
+    }
+
+    int size() {
+        return ids.size();
+    }
+
+    /**
+     * @throws CancellationException If the thread gets interrupted meanwhile.
+     */
+    Set<MessagePropertiesDTO> search(MessageSearchQuery query) {
+        Set<MessagePropertiesDTO> result = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        TopicMatchCache topicMatches = new TopicMatchCache(query::matches);
+
+        long[] trigrams = query.isRegex() ? new long[0] : Arrays.stream(trigrams(query.getText())).distinct().toArray();
+        if (trigrams.length == 0) {
+            // Regular expressions and queries shorter than a trigram can not use the index.
+            for (int id = 0; id < nextId; id++) {
+                checkCancelled(id);
+                verify(query, topicMatches, id, result);
+            }
+            return result;
+        }
+
+        for (int id : candidates(trigrams)) {
+            verify(query, topicMatches, id, result);
+        }
+        for (int id = partial.nextSetBit(0); id >= 0; id = partial.nextSetBit(id + 1)) {
+            checkCancelled(id);
+            verify(query, topicMatches, id, result);
+        }
+        return result;
+    }
+
+    private void add(MessagePropertiesDTO messageDTO) {
+        if (ids.containsKey(messageDTO)) {
+            return;
+        }
+
+        int id = nextId++;
+        if (id == messages.length) {
+            messages = Arrays.copyOf(messages, messages.length * 2);
+        }
+        messages[id] = messageDTO;
+        ids.put(messageDTO, id);
+
+        String payload = messageDTO.getPayloadPrefix(INDEXED_PAYLOAD_CHARS);
+        if (payload.length() >= INDEXED_PAYLOAD_CHARS) {
+            partial.set(id);
+        }
+
+        index(messageDTO.getTopic(), id);
+        index(payload, id);
+    }
+
+    private void index(String text, int id) {
+        if (text == null) {
+            return;
+        }
+        // Repeated trigrams are dropped by the postings themselves.
+        for (long trigram : trigrams(text)) {
+            postings.computeIfAbsent(trigram, t -> new Postings()).add(id);
+        }
+    }
+
+    private int[] candidates(long[] trigrams) {
+        List<Postings> lists = new ArrayList<>(trigrams.length);
+        for (long trigram : trigrams) {
+            Postings list = postings.get(trigram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+
+        // Start with the rarest trigram, every further list can only shrink the candidates.
+        lists.sort(Comparator.comparingInt(l -> l.size));
+        int[] candidates = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            Postings list = lists.get(i);
+            int kept = 0;
+            for (int c = 0; c < count; c++) {
+                checkCancelled(c);
+                if (Arrays.binarySearch(list.ids, 0, list.size, candidates[c]) >= 0) {
+                    candidates[kept++] = candidates[c];
+                }
+            }
+            count = kept;
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    // Same as MessageSearchQuery.test, with the topic only matched once per topic.
+    private void verify(MessageSearchQuery query, TopicMatchCache topicMatches, int id, Set<MessagePropertiesDTO> result) {
+        MessagePropertiesDTO messageDTO = messages[id];
+        if (messageDTO != null && (query.isEmpty() || topicMatches.test(messageDTO) || query.matchesPayload(messageDTO))) {
+            result.add(messageDTO);
+        }
+    }
+
+    private void compact() {
+        List<MessagePropertiesDTO> live = new ArrayList<>(ids.size());
+        for (int id = 0; id < nextId; id++) {
+            if (messages[id] != null) {
+                live.add(messages[id]);
+            }
+        }
+        clear();
+        addAll(live);
+    }
+
+    private static void checkCancelled(int iteration) {
+        if ((iteration & CANCEL_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException();
+        }
+    }
+
+    // Case folded, so the index serves case sensitive and insensitive queries.
+    private static long[] trigrams(String text) {
+        if (text.length() < 3) {
+            return new long[0];
+        }
+
+        long[] trigrams = new long[text.length() - 2];
+        long c0 = fold(text.charAt(0));
+        long c1 = fold(text.charAt(1));
+        for (int i = 2; i < text.length(); i++) {
+            long c2 = fold(text.charAt(i));
+            trigrams[i - 2] = (c0 << 32) | (c1 << 16) | c2;
+            c0 = c1;
+            c1 = c2;
+        }
+        return trigrams;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static final class Postings {
+
+        private int[] ids = new int[2];
+        private int size;
+
+        // Ids come in ascending order, a repeated id is the same message containing the trigram twice.
+        private void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
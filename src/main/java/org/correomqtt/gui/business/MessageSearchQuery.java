@@ -0,0 +1,117 @@
+package org.correomqtt.gui.business;
+
+import org.correomqtt.business.utils.CorreoCharsetDecoder;
+import org.correomqtt.gui.model.MessagePropertiesDTO;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.regex.Pattern;
+
+/**
+ * Search text for the message list, matched against topic and payload either as substring or as regular expression.
+ * Immutable, so it can be evaluated on any thread.
+ */
+public class MessageSearchQuery {
+
+    public static final MessageSearchQuery EMPTY = new MessageSearchQuery("", false, false, null);
+
+    private static final int CHUNK_CHARS = 8192;
+
+    private final String text;
+    private final boolean ignoreCase;
+    private final boolean regex;
+    private final Pattern pattern;
+
+    private MessageSearchQuery(String text, boolean ignoreCase, boolean regex, Pattern pattern) {
+        this.text = text;
+        this.ignoreCase = ignoreCase;
+        this.regex = regex;
+        this.pattern = pattern;
+    }
+
+    /**
+     * @throws java.util.regex.PatternSyntaxException If regex is set and the text is no valid expression.
+     */
+    public static MessageSearchQuery of(String text, boolean ignoreCase, boolean regex) {
+        if (text == null || text.isEmpty()) {
+            return EMPTY;
+        }
+
+        int flags = ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0;
+        Pattern pattern;
+        if (regex) {
+            pattern = Pattern.compile(text, flags);
+        } else if (ignoreCase) {
+            pattern = Pattern.compile(text, flags | Pattern.LITERAL);
+        } else {
+            // Plain String.contains is faster than any pattern.
+            pattern = null;
+        }
+        return new MessageSearchQuery(text, ignoreCase, regex, pattern);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isEmpty() {
+        return text.isEmpty();
+    }
+
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    public boolean isRegex() {
+        return regex;
+    }
+
+    public boolean test(MessagePropertiesDTO messageDTO) {
+        return isEmpty() || matches(messageDTO.getTopic()) || matchesPayload(messageDTO);
+    }
+
+    /**
+     * Decodes the payload chunk by chunk, starting with the part the index covers, and stops at the first match.
+     * Regular expressions may depend on what follows, they are matched against the whole payload.
+     */
+    boolean matchesPayload(MessagePropertiesDTO messageDTO) {
+        ByteBuffer input = messageDTO.getPayloadBuffer();
+        if (input == null || regex) {
+            return matches(messageDTO.getPayloadUncached());
+        }
+
+        // Each chunk starts with the end of the one before, a match may span both.
+        int overlap = text.length() - 1;
+        CharBuffer chunk = CharBuffer.allocate(overlap + CHUNK_CHARS);
+        chunk.limit(MessageSearchIndex.INDEXED_PAYLOAD_CHARS);
+        while (true) {
+            CorreoCharsetDecoder.decode(input, chunk);
+            chunk.flip();
+            if (matches(chunk)) {
+                return true;
+            }
+            if (!input.hasRemaining()) {
+                return false;
+            }
+            chunk.position(Math.max(0, chunk.limit() - overlap));
+            chunk.compact();
+        }
+    }
+
+    /**
+     * Match on the start of the payload only, e.g. the part the index covers.
+     *
+     * @param complete Whether the start is the whole payload.
+     * @return Whether the start tells that the payload matches.
+     */
+    boolean matchesPayloadStart(String payloadStart, boolean complete) {
+        return (complete || !regex) && matches(payloadStart);
+    }
+
+    boolean matches(CharSequence value) {
+        if (value == null) {
+            return false;
+        }
+        return pattern == null ? value.toString().contains(text) : pattern.matcher(value).find();
+    }
+}
@@ -0,0 +1,169 @@
+package org.correomqtt.gui.business;
+
+import javafx.application.Platform;
+import org.correomqtt.business.utils.AutoFormatPayload;
+import org.correomqtt.business.utils.MessageIds;
+import org.correomqtt.gui.formats.FormattedPayload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Formats payloads for the detail views on a background thread and keeps the results of recently shown messages, so
+ * selecting a message again shows it without detecting its format a second time.
+ * <p>
+ * Results are cached per message id and formatting flag and only reused for an equal payload, a message changed e.g.
+ * by a manipulator is formatted again.
+ */
+public class PayloadFormatter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PayloadFormatter.class);
+
+    private static final int MAX_CACHED_ENTRIES = 256;
+    // Characters of payload and pretty text over all entries, large payloads push out the others first.
+    private static final long MAX_CACHED_CHARS = 8L * 1024 * 1024;
+
+    private static PayloadFormatter instance;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "correo-payload-format");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<CacheKey, CachedFormat> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedChars;
+
+    private PayloadFormatter() {
+        // private constructor
+    }
+
+    public static synchronized PayloadFormatter getInstance() {
+        if (instance == null) {
+            instance = new PayloadFormatter();
+        }
+        return instance;
+    }
+
+    /**
+     * Must be called on the FX application thread.
+     *
+     * @param messageId {@link MessageIds#NONE} for text that is not a message as received, it is not cached.
+     * @param onReady   Called on the FX application thread once the payload is formatted, right away if it was
+     *                  cached. Not called if the returned future was cancelled before.
+     * @return Cancel it, e.g. when another message is selected, to skip work that is no longer needed.
+     */
+    public Future<?> format(long messageId, String payload, boolean doFormatting, Consumer<FormattedPayload> onReady) {
+        CacheKey key = messageId == MessageIds.NONE ? null : new CacheKey(messageId, doFormatting);
+        if (key != null) {
+            FormattedPayload cached = getCached(key, payload);
+            if (cached != null) {
+                onReady.accept(cached);
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+
+        CompletableFuture<FormattedPayload> future = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            long start = System.nanoTime();
+            FormattedPayload formattedPayload = AutoFormatPayload.format(payload, doFormatting);
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Formatted payload of {} chars in {} ms", payload.length(), (System.nanoTime() - start) / 1_000_000);
+            }
+            if (key != null) {
+                putCached(key, payload, formattedPayload);
+            }
+            Platform.runLater(() -> {
+                if (future.complete(formattedPayload)) {
+                    onReady.accept(formattedPayload);
+                }
+            });
+        });
+        future.whenComplete((result, throwable) -> {
+            if (future.isCancelled()) {
+                task.cancel(false);
+            }
+        });
+        return future;
+    }
+
+    private synchronized FormattedPayload getCached(CacheKey key, String payload) {
+        CachedFormat cached = cache.get(key);
+        return cached != null && cached.payload.equals(payload) ? cached.formattedPayload : null;
+    }
+
+    private synchronized void putCached(CacheKey key, String payload, FormattedPayload formattedPayload) {
+        long chars = chars(payload, formattedPayload);
+        if (chars > MAX_CACHED_CHARS) {
+            return;
+        }
+
+        CachedFormat previous = cache.put(key, new CachedFormat(payload, formattedPayload));
+        if (previous != null) {
+            cachedChars -= chars(previous.payload, previous.formattedPayload);
+        }
+        cachedChars += chars;
+
+        Iterator<CachedFormat> iterator = cache.values().iterator();
+        while (iterator.hasNext() && (cachedChars > MAX_CACHED_CHARS || cache.size() > MAX_CACHED_ENTRIES)) {
+            CachedFormat eldest = iterator.next();
+            cachedChars -= chars(eldest.payload, eldest.formattedPayload);
+            iterator.remove();
+        }
+    }
+
+    private static long chars(String payload, FormattedPayload formattedPayload) {
+        return (long) payload.length() + formattedPayload.getPrettyString().length();
+    }
+
+    private static final class CacheKey {
+
+        private final long messageId;
+        private final boolean doFormatting;
+
+        private CacheKey(long messageId, boolean doFormatting) {
+            this.messageId = messageId;
+            this.doFormatting = doFormatting;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return messageId == other.messageId && doFormatting == other.doFormatting;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(messageId, doFormatting);
+        }
+    }
+
+    private static final class CachedFormat {
+
+        private final String payload;
+        private final FormattedPayload formattedPayload;
+
+        private CachedFormat(String payload, FormattedPayload formattedPayload) {
+            this.payload = payload;
+            this.formattedPayload = formattedPayload;
+        }
+    }
+}
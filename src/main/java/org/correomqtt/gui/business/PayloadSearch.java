@@ -0,0 +1,248 @@
+package org.correomqtt.gui.business;
+
+import javafx.application.Platform;
+import org.correomqtt.gui.model.Search;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Search in the text of a detail view. Runs on the search thread, a newer search cancels the running one and matches
+ * are passed to the FX thread in chunks while the search goes on.
+ * <p>
+ * A text query that extends the previous one on the same text only checks the positions where the previous query
+ * was found. Must be used on the FX application thread.
+ */
+public class PayloadSearch {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PayloadSearch.class);
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final long CHUNK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static final ExecutorService SEARCH_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "correo-payload-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Runnable onMatchesChanged;
+    private final List<Search> matches = new ArrayList<>();
+    private final AtomicLong generation = new AtomicLong();
+    private boolean running;
+
+    private String lastText;
+    private String lastQuery;
+    private int lastFlags;
+    private boolean lastRegex;
+    private Pattern lastPattern;
+    // Every position the last text query was found at, overlapping ones too. Null while it runs and for regex.
+    private int[] lastOccurrences;
+
+    /**
+     * @param onMatchesChanged Called on the FX thread after matches were added and when a search finished.
+     */
+    public PayloadSearch(Runnable onMatchesChanged) {
+        this.onMatchesChanged = onMatchesChanged;
+    }
+
+    /**
+     * Starts searching, the matches of the previous search are cleared right away.
+     *
+     * @param text Passing the same string instance again allows reusing the previous result.
+     * @throws PatternSyntaxException If the regex is invalid, the previous search keeps running.
+     */
+    public void search(String text, String query, boolean ignoreCase, boolean regex) {
+        int flags = ignoreCase ? Pattern.CASE_INSENSITIVE : 0;
+        Pattern pattern;
+        if (lastPattern != null && query.equals(lastQuery) && flags == lastFlags && regex == lastRegex) {
+            pattern = lastPattern;
+        } else {
+            pattern = Pattern.compile(regex ? query : Pattern.quote(query), flags);
+        }
+
+        int[] candidates = null;
+        if (!regex && lastOccurrences != null && text == lastText && flags == lastFlags && query.startsWith(lastQuery)) {
+            candidates = lastOccurrences;
+        }
+
+        clear();
+        lastText = text;
+        lastQuery = query;
+        lastFlags = flags;
+        lastRegex = regex;
+        lastPattern = pattern;
+
+        if (query.isEmpty()) {
+            onMatchesChanged.run();
+            return;
+        }
+
+        running = true;
+        long current = generation.get();
+        int[] finalCandidates = candidates;
+        SEARCH_EXECUTOR.submit(() -> run(current, text, pattern, regex, finalCandidates));
+    }
+
+    /**
+     * Cancels the running search and removes all matches.
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        running = false;
+        matches.clear();
+        lastOccurrences = null;
+    }
+
+    /**
+     * @return Matches found so far, ordered by position.
+     */
+    public List<Search> getMatches() {
+        return Collections.unmodifiableList(matches);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run(long current, String text, Pattern pattern, boolean regex, int[] candidates) {
+        Matcher matcher = pattern.matcher(new CancellableText(text, generation, current));
+        Chunks chunks = new Chunks(current, !regex);
+        try {
+            if (regex) {
+                while (matcher.find()) {
+                    chunks.add(matcher.start(), matcher.end());
+                }
+            } else if (candidates != null) {
+                for (int start : candidates) {
+                    matcher.region(start, text.length());
+                    if (matcher.lookingAt()) {
+                        chunks.add(start, matcher.end());
+                    }
+                }
+            } else {
+                int from = 0;
+                while (from < text.length() && matcher.find(from)) {
+                    chunks.add(matcher.start(), matcher.end());
+                    from = matcher.start() + 1;
+                }
+            }
+        } catch (CancellationException e) {
+            return;
+        } catch (Throwable e) {
+            // E.g. a StackOverflowError of a regex on a large payload. The matches found so far stay.
+            LOGGER.error("Searching payload for {} failed. ", pattern, e);
+            publish(current, chunks.chunk, null, true);
+            return;
+        }
+        chunks.finish();
+    }
+
+    private void publish(long current, List<Search> found, int[] occurrences, boolean done) {
+        Platform.runLater(() -> {
+            if (generation.get() != current) {
+                return;
+            }
+            matches.addAll(found);
+            if (done) {
+                running = false;
+                lastOccurrences = occurrences;
+            }
+            onMatchesChanged.run();
+        });
+    }
+
+    // Collects matches on the search thread and passes them on in chunks.
+    private final class Chunks {
+
+        private final long current;
+        private final boolean overlapping;
+        private int[] occurrences = new int[16];
+        private int occurrenceCount;
+        private int lastEnd;
+        private List<Search> chunk = new ArrayList<>();
+        private long chunkStart = System.nanoTime();
+
+        private Chunks(long current, boolean overlapping) {
+            this.current = current;
+            this.overlapping = overlapping;
+        }
+
+        // Text queries report overlapping positions too, only those after the previous match are shown, like find().
+        private void add(int start, int end) {
+            if (overlapping) {
+                if (occurrenceCount == occurrences.length) {
+                    occurrences = Arrays.copyOf(occurrences, occurrenceCount * 2);
+                }
+                occurrences[occurrenceCount++] = start;
+                if (start < lastEnd) {
+                    return;
+                }
+                lastEnd = end;
+            }
+
+            chunk.add(new Search(start, end));
+            if (chunk.size() >= CHUNK_SIZE || System.nanoTime() - chunkStart >= CHUNK_NANOS) {
+                publish(current, chunk, null, false);
+                chunk = new ArrayList<>();
+                chunkStart = System.nanoTime();
+            }
+        }
+
+        private void finish() {
+            publish(current, chunk, overlapping ? Arrays.copyOf(occurrences, occurrenceCount) : null, true);
+        }
+    }
+
+    // Lets a running regex notice that it was cancelled, Matcher has no other way to stop.
+    private static final class CancellableText implements CharSequence {
+
+        private static final int CHECK_INTERVAL = 0xFFFF;
+
+        private final String text;
+        private final AtomicLong generation;
+        private final long current;
+        private int reads;
+
+        private CancellableText(String text, AtomicLong generation, long current) {
+            this.text = text;
+            this.generation = generation;
+            this.current = current;
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if ((++reads & CHECK_INTERVAL) == 0 && generation.get() != current) {
+                throw new CancellationException();
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return text.substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
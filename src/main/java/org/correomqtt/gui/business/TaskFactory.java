@@ -1,11 +1,17 @@
 package org.correomqtt.gui.business;
 
+import javafx.application.Platform;
 import lombok.extern.slf4j.Slf4j;
+import org.correomqtt.business.dispatcher.PublishDispatcher;
+import org.correomqtt.business.exception.CorreoMqttPublishHookFailedException;
 import org.correomqtt.business.services.*;
 import org.correomqtt.gui.model.MessagePropertiesDTO;
 import org.correomqtt.gui.model.SubscriptionPropertiesDTO;
 import org.correomqtt.gui.transformer.MessageTransformer;
 import org.correomqtt.gui.transformer.SubscriptionTransformer;
+import org.correomqtt.plugin.manager.HookChain;
+import org.correomqtt.plugin.manager.HookExecutor;
+import org.correomqtt.plugin.manager.HookFailedException;
 import org.correomqtt.plugin.manager.PluginManager;
 import org.correomqtt.plugin.model.MessageExtensionDTO;
 import org.correomqtt.plugin.spi.OutgoingMessageHook;
@@ -15,27 +21,48 @@ import java.io.File;
 @Slf4j
 public class TaskFactory {
 
+    private static final HookExecutor.Lane PUBLISH_HOOK_LANE = HookExecutor.getInstance().newLane();
+
     private TaskFactory() {
         // private constructor
     }
 
     public static void publish(String connectionId, MessagePropertiesDTO messagePropertiesDTO) {
-        messagePropertiesDTO = executeOnPublishMessageExtensions(connectionId, messagePropertiesDTO);
+        HookChain<OutgoingMessageHook> hookChain = PluginManager.getInstance().getOutgoingMessageHookChain();
+        if (hookChain.isEmpty()) {
+            startPublish(connectionId, messagePropertiesDTO);
+            return;
+        }
+
+        // Hooks run in order on the publish lane, the publish itself starts on the FX thread again. Outgoing hooks may
+        // sign or encrypt the message, so it is never published without one of them.
+        MessageExtensionDTO messageExtensionDTO = new MessageExtensionDTO(messagePropertiesDTO);
+        boolean accepted = PUBLISH_HOOK_LANE.offer(() -> {
+            try {
+                MessageExtensionDTO result = hookChain.executeRequired(messageExtensionDTO,
+                        (hook, message) -> hook.onPublishMessage(connectionId, message));
+                Platform.runLater(() -> startPublish(connectionId, result.merge(messagePropertiesDTO)));
+            } catch (HookFailedException e) {
+                Platform.runLater(() -> failPublish(connectionId, messagePropertiesDTO, e));
+            }
+        });
+        if (!accepted) {
+            failPublish(connectionId, messagePropertiesDTO, new HookFailedException("Publish hook lane is full."));
+        }
+    }
 
+    private static void failPublish(String connectionId, MessagePropertiesDTO messagePropertiesDTO, HookFailedException e) {
+        log.warn("Not publishing to {}: {}", messagePropertiesDTO.getTopic(), e.getMessage(), e.getCause());
+        PublishDispatcher.getInstance().onPublishFailed(connectionId, MessageTransformer.propsToDTO(messagePropertiesDTO),
+                new CorreoMqttPublishHookFailedException(e));
+    }
+
+    private static void startPublish(String connectionId, MessagePropertiesDTO messagePropertiesDTO) {
         new GuiService<>(new PublishService(connectionId,
                                             MessageTransformer.propsToDTO(messagePropertiesDTO)),
                          PublishService::publish).start();
     }
 
-    private static MessagePropertiesDTO executeOnPublishMessageExtensions(String connectionId, MessagePropertiesDTO messagePropertiesDTO) {
-        MessageExtensionDTO messageExtensionDTO = new MessageExtensionDTO(messagePropertiesDTO);
-        for (OutgoingMessageHook p : PluginManager.getInstance().getOutgoingMessageHooks()) {
-            log.info("Publish {}", p);
-            messageExtensionDTO = p.onPublishMessage(connectionId, messageExtensionDTO);
-        }
-        return messageExtensionDTO.merge(messagePropertiesDTO);
-    }
-
     public static void subscribe(String connectionId, SubscriptionPropertiesDTO subscriptionDTO) {
         new GuiService<>(new SubscribeService(connectionId,
                                               SubscriptionTransformer.propsToDTO(subscriptionDTO)),
@@ -0,0 +1,36 @@
+package org.correomqtt.gui.business;
+
+import org.correomqtt.business.topic.TopicDictionary;
+import org.correomqtt.gui.model.MessagePropertiesDTO;
+
+import java.util.BitSet;
+import java.util.function.Predicate;
+
+/**
+ * Matches the topic of messages, evaluating the topic predicate only once per topic id. Messages without topic id are
+ * matched directly. Not thread safe.
+ */
+public class TopicMatchCache implements Predicate<MessagePropertiesDTO> {
+
+    private final Predicate<String> topicPredicate;
+    private final BitSet decided = new BitSet();
+    private final BitSet matching = new BitSet();
+
+    public TopicMatchCache(Predicate<String> topicPredicate) {
+        this.topicPredicate = topicPredicate;
+    }
+
+    @Override
+    public boolean test(MessagePropertiesDTO messageDTO) {
+        int topicId = messageDTO.getTopicId();
+        if (topicId == TopicDictionary.NO_ID) {
+            return topicPredicate.test(messageDTO.getTopic());
+        }
+
+        if (!decided.get(topicId)) {
+            decided.set(topicId);
+            matching.set(topicId, topicPredicate.test(messageDTO.getTopic()));
+        }
+        return matching.get(topicId);
+    }
+}
@@ -1,12 +1,18 @@
 package org.correomqtt.gui.cell;
 
+import org.correomqtt.business.ingest.IngestStage;
+import org.correomqtt.business.ingest.IngestTimings;
 import org.correomqtt.business.provider.SettingsProvider;
+import org.correomqtt.gui.model.LatestValueStore;
 import org.correomqtt.gui.model.MessagePropertiesDTO;
+import org.correomqtt.gui.model.MessageRecord;
+import org.correomqtt.plugin.manager.HookChain;
 import org.correomqtt.plugin.manager.MessageValidator;
 import org.correomqtt.plugin.manager.PluginManager;
 import org.correomqtt.plugin.model.MessageExtensionDTO;
 import org.correomqtt.plugin.spi.MessageListHook;
 import org.correomqtt.plugin.spi.MessageValidatorHook;
+import javafx.beans.InvalidationListener;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.control.*;
@@ -15,7 +21,10 @@ import javafx.scene.layout.Pane;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.text.MessageFormat;
+import java.time.temporal.ChronoUnit;
 import java.util.ResourceBundle;
+import java.util.function.Function;
 
 @SuppressWarnings("java:S110")
 public class MessageViewCell extends ListCell<MessagePropertiesDTO> {
@@ -24,6 +33,8 @@ public class MessageViewCell extends ListCell<MessagePropertiesDTO> {
     private static final int MAX_PAYLOAD_LENGTH = 1000;
 
     private final ListView<MessagePropertiesDTO> listView;
+    private final Function<MessagePropertiesDTO, LatestValueStore.Entry> latestValueLookup;
+    private final IngestTimings ingestTimings;
 
     @SuppressWarnings("unused")
     @FXML
@@ -57,22 +68,56 @@ public class MessageViewCell extends ListCell<MessagePropertiesDTO> {
     @FXML
     private Label payloadLabel;
 
+    @SuppressWarnings("unused")
+    @FXML
+    private Label countLabel;
+
+    @SuppressWarnings("unused")
+    @FXML
+    private Tooltip countTooltip;
+
     @FXML
     private Label subscriptionLabel;
 
     private FXMLLoader loader;
 
+    // Messages do not fire list updates, the cell follows changes of the message it shows.
+    private final InvalidationListener messageListener = observable -> onMessageChanged();
+    private MessagePropertiesDTO observedMessage;
+
+    private final Tooltip validTooltip = new Tooltip();
+    private final Tooltip invalidTooltip = new Tooltip();
+    private MessagePropertiesDTO renderedMessage;
+    private MessageRecord renderedRecord;
+    private HookChain<MessageListHook> renderedHookChain;
+    private MessageValidatorHook.Validation renderedValidation;
+    private long renderedMessageCount = -1;
+    private LatestValueStore.Entry latestValue;
+
 
     @FXML
     private ResourceBundle resources;
 
     public MessageViewCell(ListView<MessagePropertiesDTO> listView) {
+        this(listView, m -> null, null);
+    }
+
+    /**
+     * @param latestValueLookup Entry to show the per topic counters for, null to show the message only.
+     * @param ingestTimings     Records the time to set up the cell, may be null.
+     */
+    public MessageViewCell(ListView<MessagePropertiesDTO> listView,
+                           Function<MessagePropertiesDTO, LatestValueStore.Entry> latestValueLookup,
+                           IngestTimings ingestTimings) {
         this.listView = listView;
+        this.latestValueLookup = latestValueLookup;
+        this.ingestTimings = ingestTimings;
     }
 
     @Override
     protected void updateItem(MessagePropertiesDTO messageDTO, boolean empty) {
         super.updateItem(messageDTO, empty);
+        observe(empty ? null : messageDTO);
         if (empty || messageDTO == null) {
             setText(null);
             setGraphic(null);
@@ -84,6 +129,10 @@ public class MessageViewCell extends ListCell<MessagePropertiesDTO> {
                             ResourceBundle.getBundle("org.correomqtt.i18n", SettingsProvider.getInstance().getSettings().getCurrentLocale()));
                     loader.setController(this);
                     loader.load();
+                    mainNode.prefWidthProperty().bind(listView.widthProperty().subtract(20));
+                    countTooltip.setOnShowing(event -> updateCountTooltip());
+                    updateValidatorLabel(validLabel, validTooltip, false, null);
+                    updateValidatorLabel(invalidLabel, invalidTooltip, false, null);
 
                 } catch (Exception e) {
                     LOGGER.error("Exception receiving message:", e);
@@ -93,18 +142,56 @@ public class MessageViewCell extends ListCell<MessagePropertiesDTO> {
                 }
 
             }
-            mainNode.prefWidthProperty().bind(listView.widthProperty().subtract(20));
             setUpMessage(messageDTO);
             setText(null);
             setGraphic(mainNode);
         }
     }
 
+    private void observe(MessagePropertiesDTO messageDTO) {
+        if (observedMessage == messageDTO) {
+            return;
+        }
+        if (observedMessage != null) {
+            observedMessage.removeListener(messageListener);
+        }
+        observedMessage = messageDTO;
+        if (messageDTO != null) {
+            messageDTO.addListener(messageListener);
+        }
+    }
+
+    private void onMessageChanged() {
+        if (observedMessage != null && getGraphic() == mainNode && mainNode != null) {
+            setUpMessage(observedMessage);
+        }
+    }
+
     private void setUpMessage(MessagePropertiesDTO messageDTO) {
+        MessageRecord record = messageDTO.getRecord();
+        HookChain<MessageListHook> hookChain = PluginManager.getInstance().getMessageListHookChain();
+
+        // Cells are updated far more often than their messages change, e.g. on every layout pass while scrolling.
+        if (messageDTO != renderedMessage || record != renderedRecord || hookChain != renderedHookChain) {
+            renderedMessage = messageDTO;
+            renderedRecord = record;
+            renderedHookChain = hookChain;
+            long start = System.nanoTime();
+            setUpRecord(messageDTO, record, hookChain);
+            if (ingestTimings != null) {
+                ingestTimings.record(IngestStage.RENDER, System.nanoTime() - start);
+            }
+        }
+
+        validateMessage(messageDTO);
+        setUpLatestValue(messageDTO);
+    }
+
+    private void setUpRecord(MessagePropertiesDTO messageDTO, MessageRecord record, HookChain<MessageListHook> hookChain) {
         topicLabel.getStyleClass().removeAll("published", "succeeded", "failed");
 
-        if (messageDTO.getPublishStatus() != null) {
-            switch (messageDTO.getPublishStatus()) {
+        if (record.getPublishStatus() != null) {
+            switch (record.getPublishStatus()) {
                 case PUBLISEHD:
                     topicLabel.getStyleClass().add("published");
                     break;
@@ -117,53 +204,65 @@ public class MessageViewCell extends ListCell<MessagePropertiesDTO> {
             }
         }
 
-        executeOnCreateMessageEntryExtensions(messageDTO);
+        executeOnCreateMessageEntryExtensions(messageDTO, hookChain);
 
-        validateMessage(messageDTO);
+        topicLabel.setText(record.getTopic());
 
-        subscriptionLabel.setVisible(false);
-        subscriptionLabel.setManaged(false);
+        boolean hasSubscription = record.getSubscription() != null;
+        subscriptionLabel.setVisible(hasSubscription);
+        subscriptionLabel.setManaged(hasSubscription);
+        if (hasSubscription) {
+            subscriptionLabel.setText(record.getSubscription().getTopic());
+        }
 
-        topicLabel.setText(messageDTO.getTopic());
+        retainedLabel.setVisible(record.isRetained());
+        retainedLabel.setManaged(record.isRetained());
+        qosLabel.setText(record.getQos().toString());
+        payloadLabel.setText(messageDTO.getPayloadPreview(MAX_PAYLOAD_LENGTH));
+    }
 
-        if (messageDTO.getSubscription() != null) {
-            subscriptionLabel.setVisible(true);
-            subscriptionLabel.setManaged(true);
-            subscriptionLabel.setText(messageDTO.getSubscription().getTopic());
+    private void setUpLatestValue(MessagePropertiesDTO messageDTO) {
+        latestValue = latestValueLookup.apply(messageDTO);
+        countLabel.setVisible(latestValue != null);
+        countLabel.setManaged(latestValue != null);
+        if (latestValue != null && latestValue.getMessageCount() != renderedMessageCount) {
+            renderedMessageCount = latestValue.getMessageCount();
+            countLabel.setText(String.valueOf(renderedMessageCount));
         }
+    }
 
-        retainedLabel.setVisible(messageDTO.isRetained());
-        retainedLabel.setManaged(messageDTO.isRetained());
-        qosLabel.setText(messageDTO.getQos().toString());
-        String payload = messageDTO.getPayload();
-        payloadLabel.setText(payload.substring(0, Math.min(payload.length(), MAX_PAYLOAD_LENGTH))
-                .replace("\n", " ")
-                .replace("\r", " "
-                ).trim());
+    // Only formatted when actually shown.
+    private void updateCountTooltip() {
+        if (latestValue != null) {
+            countTooltip.setText(MessageFormat.format(resources.getString("messageViewLatestValueTooltip"),
+                    latestValue.getMessageCount(), latestValue.getLastUpdate().truncatedTo(ChronoUnit.SECONDS)));
+        }
     }
 
-    private void executeOnCreateMessageEntryExtensions(MessagePropertiesDTO messageDTO) {
+    private void executeOnCreateMessageEntryExtensions(MessagePropertiesDTO messageDTO, HookChain<MessageListHook> hookChain) {
         labelBox.getChildren().clear();
-        PluginManager.getInstance().getExtensions(MessageListHook.class)
-                     .forEach(p -> p.onCreateEntry(new MessageExtensionDTO(messageDTO), labelBox));
+        if (!hookChain.isEmpty()) {
+            hookChain.executeInline(p -> p.onCreateEntry(new MessageExtensionDTO(messageDTO), labelBox));
+        }
     }
 
     private void validateMessage(MessagePropertiesDTO messageDTO) {
-        validLabel.setVisible(false);
-        validLabel.setManaged(false);
-        invalidLabel.setVisible(false);
-        invalidLabel.setManaged(false);
-
-        MessageValidatorHook.Validation validation = MessageValidator.validateMessage(messageDTO.getTopic(), messageDTO.getPayload());
-        if (validation != null) {
-            updateValidatorLabel(validLabel, validation.isValid(), validation.getTooltip());
-            updateValidatorLabel(invalidLabel, !validation.isValid(), validation.getTooltip());
+        MessageValidatorHook.Validation validation = MessageValidator.validateMessage(messageDTO);
+        if (validation == renderedValidation) {
+            return;
         }
+        renderedValidation = validation;
+
+        updateValidatorLabel(validLabel, validTooltip, validation != null && validation.isValid(), validation);
+        updateValidatorLabel(invalidLabel, invalidTooltip, validation != null && !validation.isValid(), validation);
     }
 
-    private void updateValidatorLabel(Label label, boolean isVisible, String tooltip) {
+    private static void updateValidatorLabel(Label label, Tooltip tooltip, boolean isVisible, MessageValidatorHook.Validation validation) {
         label.setVisible(isVisible);
         label.setManaged(isVisible);
-        label.setTooltip(new Tooltip(tooltip));
+        if (isVisible) {
+            tooltip.setText(validation.getTooltip());
+            label.setTooltip(tooltip);
+        }
     }
 }
@@ -9,10 +9,12 @@ import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
+import javafx.scene.control.Tooltip;
 import javafx.scene.layout.Pane;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.text.MessageFormat;
 import java.util.ResourceBundle;
 
 @SuppressWarnings("java:S110")
@@ -30,6 +32,14 @@ public class SubscriptionViewCell extends ListCell<SubscriptionPropertiesDTO> {
     @FXML
     private Label qosTag;
 
+    @SuppressWarnings("unused")
+    @FXML
+    private Label droppedTag;
+
+    @SuppressWarnings("unused")
+    @FXML
+    private Tooltip droppedTooltip;
+
     @SuppressWarnings("unused")
     @FXML
     private CheckBox filterCheckbox;
@@ -87,6 +97,16 @@ public class SubscriptionViewCell extends ListCell<SubscriptionPropertiesDTO> {
         topicLabel.setText(subscriptionDTO.getTopic());
         qosTag.setText(subscriptionDTO.getQos().toString());
         filterCheckbox.setSelected(subscriptionDTO.isFiltered());
+
+        long dropped = subscriptionDTO.getDroppedMessages();
+        long conflated = subscriptionDTO.getConflatedMessages();
+        boolean showDropped = dropped > 0 || conflated > 0;
+        droppedTag.setVisible(showDropped);
+        droppedTag.setManaged(showDropped);
+        if (showDropped) {
+            droppedTag.setText("-" + (dropped + conflated));
+            droppedTooltip.setText(MessageFormat.format(resources.getString("subscriptionViewDroppedTooltip"), dropped, conflated));
+        }
     }
 
 }
@@ -1,10 +1,14 @@
 package org.correomqtt.gui.contextmenu;
 
+import org.correomqtt.business.model.IngestOverflowPolicy;
 import org.correomqtt.business.provider.SettingsProvider;
 import org.correomqtt.gui.model.SubscriptionPropertiesDTO;
 import javafx.event.ActionEvent;
+import javafx.scene.control.Menu;
 import javafx.scene.control.MenuItem;
+import javafx.scene.control.RadioMenuItem;
 import javafx.scene.control.SeparatorMenuItem;
+import javafx.scene.control.ToggleGroup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,6 +22,8 @@ public class SubscriptionListMessageContextMenu extends BaseObjectContextMenu<Su
     private MenuItem unsubscribe;
     private MenuItem filter;
     private MenuItem filterOnly;
+    private Menu overflowPolicy;
+    private final ToggleGroup overflowPolicyGroup = new ToggleGroup();
 
     private SeparatorMenuItem separator1;
 
@@ -40,6 +46,15 @@ public class SubscriptionListMessageContextMenu extends BaseObjectContextMenu<Su
         filterOnly = new MenuItem(resources.getString("subscriptionListMessageContextMenuFilterOnlyMenuItem"));
         filterOnly.setOnAction(this::filterOnly);
 
+        overflowPolicy = new Menu(resources.getString("subscriptionListMessageContextMenuOverflowPolicyMenu"));
+        for (IngestOverflowPolicy policy : IngestOverflowPolicy.values()) {
+            RadioMenuItem policyItem = new RadioMenuItem(resources.getString("ingestOverflowPolicy" + policy.name()));
+            policyItem.setUserData(policy);
+            policyItem.setToggleGroup(overflowPolicyGroup);
+            policyItem.setOnAction(this::setOverflowPolicy);
+            overflowPolicy.getItems().add(policyItem);
+        }
+
         MenuItem selectAll = new MenuItem(resources.getString("subscriptionListMessageContextMenuSelectAllMenuItem"));
         selectAll.setOnAction(this::selectAll);
 
@@ -55,6 +70,7 @@ public class SubscriptionListMessageContextMenu extends BaseObjectContextMenu<Su
         this.getItems().addAll(unsubscribe,
                                filter,
                                filterOnly,
+                               overflowPolicy,
                                separator1,
                 selectAll,
                 selectNone,
@@ -68,9 +84,28 @@ public class SubscriptionListMessageContextMenu extends BaseObjectContextMenu<Su
         unsubscribe.setVisible(visible);
         filter.setVisible(visible);
         filterOnly.setVisible(visible);
+        overflowPolicy.setVisible(visible);
         separator1.setVisible(visible);
     }
 
+    @Override
+    public void setObject(SubscriptionPropertiesDTO dto) {
+        super.setObject(dto);
+        if (dto != null) {
+            IngestOverflowPolicy current = delegate.getOverflowPolicy(dto);
+            overflowPolicyGroup.getToggles().forEach(t -> t.setSelected(t.getUserData() == current));
+        }
+    }
+
+    private void setOverflowPolicy(ActionEvent actionEvent) {
+        if (dto != null) {
+            RadioMenuItem source = (RadioMenuItem) actionEvent.getSource();
+            delegate.setOverflowPolicy(dto, (IngestOverflowPolicy) source.getUserData());
+        } else {
+            LOGGER.warn("Call to {}::setOverflowPolicy with empty message.", getClassName());
+        }
+    }
+
     private void unsubscribeAll(ActionEvent actionEvent) {
         delegate.unsubscribeAll();
 
@@ -1,5 +1,6 @@
 package org.correomqtt.gui.contextmenu;
 
+import org.correomqtt.business.model.IngestOverflowPolicy;
 import org.correomqtt.gui.model.SubscriptionPropertiesDTO;
 
 public interface SubscriptionListMessageContextMenuDelegate extends BaseObjectContextMenuDelegate {
@@ -12,4 +13,8 @@ public interface SubscriptionListMessageContextMenuDelegate extends BaseObjectCo
     void filterOnly(SubscriptionPropertiesDTO dto);
 
     void unsubscribe(SubscriptionPropertiesDTO dto);
+
+    IngestOverflowPolicy getOverflowPolicy(SubscriptionPropertiesDTO dto);
+
+    void setOverflowPolicy(SubscriptionPropertiesDTO dto, IngestOverflowPolicy overflowPolicy);
 }
@@ -1,6 +1,9 @@
 package org.correomqtt.gui.controller;
 
+import org.correomqtt.business.ingest.IngestBacklog;
+import org.correomqtt.business.ingest.IngestTimings;
 import org.correomqtt.business.utils.ConnectionHolder;
+import org.correomqtt.business.utils.CorreoMqttConnection;
 import org.slf4j.Marker;
 import org.slf4j.MarkerFactory;
 
@@ -35,6 +38,16 @@ abstract class BaseConnectionController extends BaseController {
         return MarkerFactory.getMarker(ConnectionHolder.getInstance().getConfig(connectionId).getName());
     }
 
+    IngestTimings getIngestTimings() {
+        CorreoMqttConnection connection = ConnectionHolder.getInstance().getConnection(connectionId);
+        return connection == null ? new IngestTimings() : connection.getIngestTimings();
+    }
+
+    IngestBacklog getIngestBacklog() {
+        CorreoMqttConnection connection = ConnectionHolder.getInstance().getConnection(connectionId);
+        return connection == null ? new IngestBacklog() : connection.getIngestBacklog();
+    }
+
     public String getTabId() {
         return tabId;
     }
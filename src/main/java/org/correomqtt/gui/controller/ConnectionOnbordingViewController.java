@@ -128,6 +128,8 @@ public class ConnectionOnbordingViewController extends BaseController implements
                 connectionToUpdate.getUsernameProperty().setValue(connection.getUsername());
                 connectionToUpdate.getPasswordProperty().setValue(connection.getPassword());
                 connectionToUpdate.getCleanSessionProperty().setValue(connection.isCleanSession());
+                connectionToUpdate.getManualAcknowledgementProperty().setValue(connection.isManualAcknowledgement());
+                connectionToUpdate.getReceiveMaximumProperty().setValue(connection.getReceiveMaximum());
                 connectionToUpdate.getMqttVersionProperty().setValue(connection.getMqttVersion());
                 connectionToUpdate.getSslProperty().setValue(connection.getSsl());
                 connectionToUpdate.getSslKeystoreProperty().setValue(connection.getSslKeystore());
@@ -73,6 +73,10 @@ public class ConnectionSettingsViewController extends BaseController implements
     @FXML
     private CheckBox cleanSessionCheckBox;
     @FXML
+    private CheckBox manualAcknowledgementCheckBox;
+    @FXML
+    private TextField receiveMaximumTextField;
+    @FXML
     private ComboBox<CorreoMqttVersion> mqttVersionComboBox;
     @FXML
     private Label internalIdLabel;
@@ -222,6 +226,8 @@ public class ConnectionSettingsViewController extends BaseController implements
                 checkPort(portTextField, false)));
         clientIdTextField.lengthProperty().addListener(((observable, oldValue, newValue) ->
                 checkClientID(clientIdTextField, false)));
+        receiveMaximumTextField.lengthProperty().addListener(((observable, oldValue, newValue) ->
+                checkReceiveMaximum(receiveMaximumTextField, false)));
 
         nameTextField.textProperty().addListener((observable, oldValue, newValue) -> setDirty(true));
         urlTextField.textProperty().addListener((observable, oldValue, newValue) -> setDirty(true));
@@ -230,6 +236,8 @@ public class ConnectionSettingsViewController extends BaseController implements
         passwordField.textProperty().addListener((observable, oldValue, newValue) -> setDirty(true));
         usernameTextField.textProperty().addListener((observable, oldValue, newValue) -> setDirty(true));
         cleanSessionCheckBox.selectedProperty().addListener((observable, oldValue, newValue) -> setDirty(true));
+        manualAcknowledgementCheckBox.selectedProperty().addListener((observable, oldValue, newValue) -> setDirty(true));
+        receiveMaximumTextField.textProperty().addListener((observable, oldValue, newValue) -> setDirty(true));
         mqttVersionComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> setDirty(true));
         tlsComboBox.getSelectionModel().selectedItemProperty().addListener(((observable, oldValue, newValue) -> {
             setDirty(true);
@@ -566,6 +574,7 @@ public class ConnectionSettingsViewController extends BaseController implements
         checksPassed |= !checkUrl(urlTextField, true);
         checksPassed |= !checkPort(portTextField, true);
         checksPassed |= !checkClientID(clientIdTextField, true);
+        checksPassed |= !checkReceiveMaximum(receiveMaximumTextField, true);
         if (lwtComboBox.getSelectionModel().getSelectedItem().equals(Lwt.ON)) {
             checksPassed |= !CheckTopicHelper.checkPublishTopic(lwtTopicComboBox, true);
         }
@@ -623,6 +632,8 @@ public class ConnectionSettingsViewController extends BaseController implements
             usernameTextField.setText(activeConnectionConfigDTO.getUsername());
             passwordField.setText(activeConnectionConfigDTO.getPassword());
             cleanSessionCheckBox.setSelected(activeConnectionConfigDTO.isCleanSession());
+            manualAcknowledgementCheckBox.setSelected(activeConnectionConfigDTO.isManualAcknowledgement());
+            receiveMaximumTextField.setText(activeConnectionConfigDTO.getReceiveMaximum() > 0 ? Integer.toString(activeConnectionConfigDTO.getReceiveMaximum()) : null);
             mqttVersionComboBox.getSelectionModel().select(activeConnectionConfigDTO.getMqttVersion());
             tlsSslGridPane.setDisable(activeConnectionConfigDTO.getSslProperty().getValue().equals(TlsSsl.OFF));
             tlsComboBox.getSelectionModel().select(activeConnectionConfigDTO.getSsl());
@@ -806,6 +817,8 @@ public class ConnectionSettingsViewController extends BaseController implements
             activeConnectionConfigDTO.getUsernameProperty().set(usernameTextField.getText());
             activeConnectionConfigDTO.getPasswordProperty().set(passwordField.getText());
             activeConnectionConfigDTO.getCleanSessionProperty().set(cleanSessionCheckBox.isSelected());
+            activeConnectionConfigDTO.getManualAcknowledgementProperty().set(manualAcknowledgementCheckBox.isSelected());
+            activeConnectionConfigDTO.getReceiveMaximumProperty().set(checkRequired(receiveMaximumTextField) ? Integer.parseInt(receiveMaximumTextField.getText()) : 0);
             activeConnectionConfigDTO.getMqttVersionProperty().setValue(mqttVersionComboBox.getSelectionModel().getSelectedItem());
             activeConnectionConfigDTO.getSslProperty().setValue(tlsComboBox.getSelectionModel().getSelectedItem());
             activeConnectionConfigDTO.getSslKeystoreProperty().set(sslKeystoreTextField.getText());
@@ -937,6 +950,18 @@ public class ConnectionSettingsViewController extends BaseController implements
         return true;
     }
 
+    private boolean checkReceiveMaximum(TextField textField, boolean save) {
+        if (checkRequired(textField)
+                && (!textField.getText().matches("\\d{1,5}") || Integer.parseInt(textField.getText()) < 1 || Integer.parseInt(textField.getText()) > 65535)) {
+            setError(textField, save, resources.getString("validationInvalidReceiveMaximum"));
+            return false;
+        }
+
+        receiveMaximumTextField.getStyleClass().clear();
+        receiveMaximumTextField.getStyleClass().addAll(TEXT_FIELD, TEXT_INPUT);
+        return true;
+    }
+
     private boolean checkClientID(TextField textField, boolean save) {
         if (!checkRequired(textField)) {
             setError(textField, save, resources.getString("validationClientIdIsEmpty"));
@@ -983,6 +1008,9 @@ public class ConnectionSettingsViewController extends BaseController implements
         portTextField.getStyleClass().removeAll(EXCLAMATION_CIRCLE_SOLID);
         clientIdTextField.getStyleClass().removeAll(EMPTY_ERROR_CLASS);
         clientIdTextField.getStyleClass().removeAll(EXCLAMATION_CIRCLE_SOLID);
+        receiveMaximumTextField.clear();
+        receiveMaximumTextField.getStyleClass().removeAll(EMPTY_ERROR_CLASS);
+        receiveMaximumTextField.getStyleClass().removeAll(EXCLAMATION_CIRCLE_SOLID);
     }
 
     private boolean confirmUnsavedConnectionSync() {
@@ -17,10 +17,13 @@ import org.correomqtt.business.model.MessageDTO;
 import org.correomqtt.business.model.MessageType;
 import org.correomqtt.business.provider.SettingsProvider;
 import org.correomqtt.business.utils.AutoFormatPayload;
+import org.correomqtt.business.utils.MessageIds;
+import org.correomqtt.gui.business.PayloadFormatter;
+import org.correomqtt.gui.business.PayloadSearch;
 import org.correomqtt.gui.contextmenu.DetailContextMenu;
 import org.correomqtt.gui.contextmenu.DetailContextMenuDelegate;
-import org.correomqtt.gui.formats.Format;
-import org.correomqtt.gui.formats.Plain;
+import org.correomqtt.gui.formats.FormattedPayload;
+import org.correomqtt.gui.formats.ViewportHighlighter;
 import org.correomqtt.gui.menuitem.DetailViewManipulatorTaskMenuItem;
 import org.correomqtt.gui.model.MessagePropertiesDTO;
 import org.correomqtt.gui.model.Search;
@@ -32,7 +35,6 @@ import org.correomqtt.plugin.manager.MessageValidator;
 import org.correomqtt.plugin.manager.PluginManager;
 import org.correomqtt.plugin.manager.DetailViewManipulatorTask;
 import org.correomqtt.plugin.model.MessageExtensionDTO;
-import org.correomqtt.plugin.spi.DetailViewFormatHook;
 import org.correomqtt.plugin.spi.DetailViewHook;
 import org.correomqtt.plugin.spi.DetailViewManipulatorHook;
 import org.correomqtt.plugin.spi.MessageValidatorHook;
@@ -58,14 +60,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.ResourceBundle;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.regex.PatternSyntaxException;
 
 
@@ -80,6 +80,7 @@ public class DetailViewController extends BaseConnectionController implements
     private static ResourceBundle resources;
     private final BooleanProperty inlineViewProperty;
     private final DetailViewDelegate delegate;
+    private final PayloadSearch payloadSearch = new PayloadSearch(this::onSearchMatchesChanged);
 
     @FXML
     private Button detailViewSaveButton;
@@ -142,11 +143,17 @@ public class DetailViewController extends BaseConnectionController implements
     private List<Search> results;
     private int currentSearchResult;
     private String currentSearchString = null;
+    private boolean searchResultSelected;
+    // Text of the code area, null if it changed since the last search.
+    private String searchText;
 
     private MessagePropertiesDTO messageDTO;
 
     private DetailViewManipulatorTask lastManipulatorTask;
 
+    private Future<?> pendingFormat;
+    private long formatRequest;
+
     private DetailViewController(String connectionId, DetailViewDelegate delegate, boolean isInlineView) {
         super(connectionId);
         this.delegate = delegate;
@@ -224,6 +231,11 @@ public class DetailViewController extends BaseConnectionController implements
         detailViewScrollPane.prefWidthProperty().bind(detailViewVBox.widthProperty());
         detailViewScrollPane.prefHeightProperty().bind(detailViewVBox.heightProperty());
 
+        detailViewScrollPane.getChildren().setAll(new VirtualizedScrollPane<>(codeArea));
+        codeArea.prefWidthProperty().bind(detailViewScrollPane.widthProperty());
+        codeArea.prefHeightProperty().bind(detailViewScrollPane.heightProperty());
+        codeArea.setEditable(false);
+
         DetailContextMenu contextMenu = new DetailContextMenu(this);
 
         metaHolder.setOnContextMenuRequested(event -> {
@@ -233,10 +245,8 @@ public class DetailViewController extends BaseConnectionController implements
             }
         });
 
-        detailViewFormatToggleButton.setOnMouseClicked(mouseEvent -> {
-            AutoFormatPayload.autoFormatPayload(messageDTO.getPayload(), detailViewFormatToggleButton.isSelected(), getConnectionId(), codeArea);
-            showSearchResult();
-        });
+        detailViewFormatToggleButton.setOnMouseClicked(mouseEvent -> formatPayload(messageDTO.getId(), messageDTO.getPayload(),
+                detailViewFormatToggleButton.isSelected(), formattedPayload -> showSearchResult()));
 
         initializeManipulation();
     }
@@ -404,11 +414,12 @@ public class DetailViewController extends BaseConnectionController implements
         }
 
         codeArea.replaceText(range, new String(selection));
+        searchText = null;
         detailViewFormatToggleButton.setSelected(false);
 
         if (messageDTO != null) {
             validateMessage(messageDTO.getTopic(), codeArea.getText());
-            AutoFormatPayload.autoFormatPayload(codeArea.getText(), true, getConnectionId(), codeArea);
+            formatPayload(MessageIds.NONE, codeArea.getText(), true, formattedPayload -> { });
         }
     }
 
@@ -426,6 +437,7 @@ public class DetailViewController extends BaseConnectionController implements
         detailViewFormatToggleButton.setDisable(true);
         detailViewSearchButton.setDisable(true);
 
+        cancelFormatting();
         closeSearch();
 
         emptyLabel.setVisible(true);
@@ -446,16 +458,47 @@ public class DetailViewController extends BaseConnectionController implements
         noPayloadLabel.setVisible(false);
         detailViewScrollPane.setManaged(true);
         detailViewScrollPane.setVisible(true);
-        detailViewScrollPane.getChildren().add(new VirtualizedScrollPane<>(codeArea));
 
-        codeArea.prefWidthProperty().bind(detailViewScrollPane.widthProperty());
-        codeArea.prefHeightProperty().bind(detailViewScrollPane.heightProperty());
+        // The previous message must not stay visible while this one is formatted.
+        codeArea.clear();
+        searchText = null;
+        detailViewFormatToggleButton.setDisable(true);
 
-        codeArea.setEditable(false);
+        formatPayload(messageDTO.getId(), payload, true, formattedPayload -> {
+            detailViewFormatToggleButton.setSelected(formattedPayload.isFormatable());
+            detailViewFormatToggleButton.setDisable(!formattedPayload.isFormatable());
+        });
+    }
 
-        Format format = AutoFormatPayload.autoFormatPayload(payload, true, getConnectionId(), codeArea);
-        detailViewFormatToggleButton.setSelected(format.isFormatable());
-        detailViewFormatToggleButton.setDisable(!format.isFormatable());
+    /**
+     * Formats off the FX thread and shows the result, unless another payload was requested in the meantime.
+     */
+    private void formatPayload(long messageId, String payload, boolean doFormatting, Consumer<FormattedPayload> onShown) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Formatting payload: {}", getConnectionId());
+        }
+
+        cancelFormatting();
+        long request = ++formatRequest;
+        pendingFormat = PayloadFormatter.getInstance().format(messageId, payload, doFormatting, formattedPayload -> {
+            if (request != formatRequest) {
+                return;
+            }
+            pendingFormat = null;
+            FormattedPayload shown = AutoFormatPayload.show(payload, formattedPayload, codeArea, null);
+            searchText = null;
+            onShown.accept(shown);
+        });
+    }
+
+    private void cancelFormatting() {
+        formatRequest++;
+        if (pendingFormat != null) {
+            pendingFormat.cancel(false);
+            pendingFormat = null;
+        }
+        // Its spans belong to the text that is about to be replaced.
+        ViewportHighlighter.uninstall(codeArea);
     }
 
     private void clearPayload() {
@@ -464,6 +507,7 @@ public class DetailViewController extends BaseConnectionController implements
         }
 
         detailViewSearchButton.setDisable(true);
+        cancelFormatting();
         closeSearch();
         noPayloadLabel.setManaged(true);
         noPayloadLabel.setVisible(true);
@@ -486,94 +530,55 @@ public class DetailViewController extends BaseConnectionController implements
         MessageUtils.saveMessage(getConnectionId(), messageDTO, stage);
     }
 
-    // TODO remove
-    private Format autoFormatPayload(final String payload, boolean doFormatting) {
-
-        if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Auto formatting payload: {}", getConnectionId());
-        }
-
-        Format foundFormat;
-        if (doFormatting) {
-            // Find the first format that is valid.
-            ArrayList<Format> availableFormats = new ArrayList<>(PluginManager.getInstance().getExtensions(DetailViewFormatHook.class));
-            availableFormats.add(new Plain());
-            foundFormat = availableFormats.stream()
-                    .filter(Objects::nonNull)
-                    .filter(format -> {
-                                try {
-                                    format.setText(payload);
-                                    return format.isValid();
-                                }catch(Exception e){
-                                    LOGGER.error("Formatting check failed. ",e);
-                                    return false;
-                                }
-                            }
-                    )
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalArgumentException("Plain format did not match."));
-        } else {
-            foundFormat = new Plain();
-            foundFormat.setText(payload);
-        }
-
-        codeArea.clear();
-        try {
-            codeArea.replaceText(0, 0, foundFormat.getPrettyString());
-            codeArea.setStyleSpans(0, foundFormat.getFxSpans());
-        }catch(Exception e){
-            LOGGER.error("Formatter failed. ",e);
-            foundFormat = new Plain();
-            foundFormat.setText(payload);
-            codeArea.replaceText(0, 0, foundFormat.getPrettyString());
-            codeArea.setStyleSpans(0, foundFormat.getFxSpans());
-        }
-        return foundFormat;
-    }
-
     private void showSearchResult() {
 
         currentSearchString = searchTextField.textProperty().get();
+        currentSearchResult = 0;
+        searchResultSelected = false;
 
-        results = new ArrayList<>();
-
-        if (!currentSearchString.isEmpty()) {
-            String codeAreaText = codeArea.getText();
-
-            boolean ignoreCase = SettingsProvider.getInstance().getSettings().isUseIgnoreCase();
-            boolean regex = SettingsProvider.getInstance().getSettings().isUseRegexForSearch();
-
-            String finalSearchString;
-            if (regex) {
-                finalSearchString = currentSearchString;
-            } else {
-                finalSearchString = Pattern.quote(currentSearchString);
-            }
-
-            try {
-                Pattern searchPattern = Pattern.compile(finalSearchString, ignoreCase ? Pattern.CASE_INSENSITIVE : 0x00);
-                Matcher matcher = searchPattern.matcher(codeAreaText);
+        boolean ignoreCase = SettingsProvider.getInstance().getSettings().isUseIgnoreCase();
+        boolean regex = SettingsProvider.getInstance().getSettings().isUseRegexForSearch();
 
-                while (matcher.find()) {
-                    results.add(results.size(), new Search(matcher.start(), matcher.end()));
-                }
-            } catch (PatternSyntaxException e) {
-                LOGGER.debug("Invalid pattern: {}", e.getMessage());
-            }
+        try {
+            payloadSearch.search(getSearchText(), currentSearchString, ignoreCase, regex);
+        } catch (PatternSyntaxException e) {
+            LOGGER.debug("Invalid pattern: {}", e.getMessage());
+            payloadSearch.clear();
+            onSearchMatchesChanged();
         }
+    }
 
-        if (!results.isEmpty()) {
-            currentSearchResult = 0;
-            selectPreviousResult.setDisable(false);
-            selectNextResult.setDisable(false);
-        } else {
+    // Matches arrive in chunks, the first one is selected, later ones only update the count.
+    private void onSearchMatchesChanged() {
+        results = payloadSearch.getMatches();
+
+        if (results.isEmpty()) {
             resultsLabel.setText(null);
             selectPreviousResult.setDisable(true);
             selectNextResult.setDisable(true);
             codeArea.deselect();
+            if (!payloadSearch.isRunning()) {
+                updateSearchResult();
+            }
+            return;
         }
 
-        updateSearchResult();
+        selectPreviousResult.setDisable(false);
+        selectNextResult.setDisable(false);
+        if (searchResultSelected) {
+            updateResultsLabel();
+        } else {
+            searchResultSelected = true;
+            updateSearchResult();
+        }
+    }
+
+    private String getSearchText() {
+        // Reading the text of a large payload takes a while, only do it once per change.
+        if (searchText == null) {
+            searchText = codeArea.getText();
+        }
+        return searchText;
     }
 
     private void performSearch(String newValue) {
@@ -595,8 +600,7 @@ public class DetailViewController extends BaseConnectionController implements
         }
 
         codeArea.selectRange(results.get(currentSearchResult).getStartIndex(), results.get(currentSearchResult).getEndIndex());
-        resultsLabel.setText(currentSearchResult + 1 + " " + resources.getString("detailViewControllerOf") + " "
-                + results.size() + " " + resources.getString("detailViewControllerMatches"));
+        updateResultsLabel();
 
         /* How to display the current search always in sight.
          * 1. Scroll to left.
@@ -611,6 +615,11 @@ public class DetailViewController extends BaseConnectionController implements
         searchTextField.requestFocus();
     }
 
+    private void updateResultsLabel() {
+        resultsLabel.setText(currentSearchResult + 1 + " " + resources.getString("detailViewControllerOf") + " "
+                + results.size() + " " + resources.getString("detailViewControllerMatches"));
+    }
+
     @FXML
     private void selectNextResult() {
         if (LOGGER.isDebugEnabled()) {
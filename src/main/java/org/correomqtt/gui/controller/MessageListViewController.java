@@ -2,23 +2,28 @@ package org.correomqtt.gui.controller;
 
 import org.correomqtt.business.dispatcher.ConnectionLifecycleDispatcher;
 import org.correomqtt.business.dispatcher.ConnectionLifecycleObserver;
+import org.correomqtt.business.ingest.IngestBacklog;
+import org.correomqtt.business.ingest.IngestStage;
+import org.correomqtt.business.ingest.IngestTimings;
 import org.correomqtt.business.model.ControllerType;
 import org.correomqtt.business.model.MessageType;
 import org.correomqtt.business.model.PublishStatus;
 import org.correomqtt.business.provider.SettingsProvider;
+import org.correomqtt.gui.business.IncomingMessageHookStage;
+import org.correomqtt.gui.business.MessageIngestBuffer;
+import org.correomqtt.gui.business.MessageSearch;
 import org.correomqtt.gui.cell.MessageViewCell;
 import org.correomqtt.gui.contextmenu.MessageListContextMenu;
 import org.correomqtt.gui.contextmenu.MessageListContextMenuDelegate;
+import org.correomqtt.gui.model.LatestValueStore;
 import org.correomqtt.gui.model.MessagePropertiesDTO;
+import org.correomqtt.gui.model.MessageStore;
 import org.correomqtt.gui.transformer.MessageTransformer;
 import org.correomqtt.gui.utils.MessageUtils;
-import org.correomqtt.plugin.manager.PluginManager;
-import org.correomqtt.plugin.model.MessageExtensionDTO;
-import org.correomqtt.plugin.spi.IncomingMessageHook;
 import javafx.application.Platform;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.beans.property.ReadOnlyIntegerProperty;
 import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
 import javafx.scene.control.*;
@@ -31,6 +36,8 @@ import javafx.stage.Stage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
@@ -59,14 +66,37 @@ public class MessageListViewController extends BaseConnectionController implemen
     private TextField messageSearchTextField;
     @FXML
     private Button messageSearchClearButton;
+    @FXML
+    private CheckMenuItem ignoreCaseMenuItem;
+    @FXML
+    private CheckMenuItem regexMenuItem;
 
     @FXML
     protected ToggleButton showDetailViewButton;
 
-    private ObservableList<MessagePropertiesDTO> messages;
+    @FXML
+    private ToggleButton latestValuesButton;
+
+    private MessageStore messageStore;
+
+    private MessageIngestBuffer messageIngestBuffer;
+
+    private IncomingMessageHookStage incomingHookStage;
+
+    private IngestTimings ingestTimings;
+
+    private IngestBacklog ingestBacklog;
 
     private FilteredList<MessagePropertiesDTO> filteredMessages;
 
+    private MessageSearch messageSearch;
+
+    private Predicate<MessagePropertiesDTO> filterPredicate = m -> true;
+
+    private LatestValueStore latestValueStore;
+
+    private FilteredList<MessagePropertiesDTO> filteredLatestValues;
+
     private DetailViewController detailViewController;
 
     protected ControllerType controllerType = null;
@@ -91,14 +121,25 @@ public class MessageListViewController extends BaseConnectionController implemen
         showDetailsButton.setDisable(true);
         clearMessagesButton.setDisable(true);
 
-        messages = FXCollections.observableArrayList(MessagePropertiesDTO.extractor());
-        filteredMessages = new FilteredList<>(messages, s -> true);
+        messageStore = MessageStore.fromSettings(SettingsProvider.getInstance().getSettings());
+        // Created before the filtered list, so new messages are matched before the list filters them.
+        messageSearch = new MessageSearch(messageStore.getMessages(), this::updatePredicate, messageStore::update);
+        filteredMessages = new FilteredList<>(messageStore.getMessages(), s -> true);
+        latestValueStore = new LatestValueStore();
+        filteredLatestValues = new FilteredList<>(latestValueStore.getRows(), s -> true);
+        ingestTimings = getIngestTimings();
+        ingestBacklog = getIngestBacklog();
+        messageIngestBuffer = new MessageIngestBuffer(this::onMessagesFlushed);
+        incomingHookStage = new IncomingMessageHookStage(this::getConnectionId, messageIngestBuffer::getBatchSize,
+                messageIngestBuffer::offer, ingestTimings);
 
         listView.setItems(filteredMessages);
         listView.setCellFactory(this::createCell);
 
         splitPane.widthProperty().addListener((observable, oldValue, newValue) -> Platform.runLater(() -> calculateDetailView(newValue)));
 
+        ignoreCaseMenuItem.setSelected(SettingsProvider.getInstance().getSettings().isUseIgnoreCase());
+        regexMenuItem.setSelected(SettingsProvider.getInstance().getSettings().isUseRegexForSearch());
         messageSearchTextField.textProperty().addListener((observable, oldValue, newValue) -> searchInMessages(newValue));
     }
 
@@ -132,13 +173,23 @@ public class MessageListViewController extends BaseConnectionController implemen
             LOGGER.debug("Search for {} in messages: {}", newValue, getConnectionId());
         }
 
-        filteredMessages.setPredicate(message -> {
-            if (newValue == null || newValue.isEmpty()) {
-                return true;
-            }
+        messageSearch.search(newValue,
+                SettingsProvider.getInstance().getSettings().isUseIgnoreCase(),
+                SettingsProvider.getInstance().getSettings().isUseRegexForSearch());
+    }
 
-            return message.getTopic().contains(newValue);
-        });
+    @FXML
+    private void changeIgnoreCase() {
+        SettingsProvider.getInstance().getSettings().setUseIgnoreCase(ignoreCaseMenuItem.isSelected());
+        SettingsProvider.getInstance().saveSettings(false);
+        searchInMessages(messageSearchTextField.getText());
+    }
+
+    @FXML
+    private void changeRegex() {
+        SettingsProvider.getInstance().getSettings().setUseRegexForSearch(regexMenuItem.isSelected());
+        SettingsProvider.getInstance().saveSettings(false);
+        searchInMessages(messageSearchTextField.getText());
     }
 
     @FXML
@@ -148,7 +199,7 @@ public class MessageListViewController extends BaseConnectionController implemen
     }
 
     private ListCell<MessagePropertiesDTO> createCell(ListView<MessagePropertiesDTO> listView) {
-        MessageViewCell cell = new MessageViewCell(listView);
+        MessageViewCell cell = new MessageViewCell(listView, this::getLatestValue, ingestTimings);
         MessageListContextMenu contextMenu = new MessageListContextMenu(this);
         cell.setContextMenu(contextMenu);
         cell.itemProperty().addListener((observable, oldValue, newValue) -> contextMenu.setObject(newValue));
@@ -165,6 +216,10 @@ public class MessageListViewController extends BaseConnectionController implemen
         return cell;
     }
 
+    private LatestValueStore.Entry getLatestValue(MessagePropertiesDTO messageDTO) {
+        return latestValuesButton.isSelected() ? latestValueStore.getEntry(messageDTO.getTopic()) : null;
+    }
+
     private void onCellClicked(MouseEvent event, MessagePropertiesDTO messageDTO) {
         if (messageDTO != null && event.getButton().equals(MouseButton.PRIMARY) && event.getClickCount() == 2) {
             DetailViewController.showAsDialog(messageDTO, getConnectionId(), this);
@@ -183,7 +238,9 @@ public class MessageListViewController extends BaseConnectionController implemen
             detailViewController.setMessage(null);
         }
 
-        messages.clear();
+        ingestBacklog.removed(messageIngestBuffer.clear());
+        messageStore.clear();
+        latestValueStore.clear();
 
         copyToFormButton.setDisable(true);
         showDetailsButton.setDisable(true);
@@ -198,7 +255,8 @@ public class MessageListViewController extends BaseConnectionController implemen
 
     @Override
     public void removeMessage(MessagePropertiesDTO messageDTO) {
-        messages.remove(messageDTO);
+        messageStore.remove(messageDTO);
+        latestValueStore.remove(messageDTO);
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Message removed from list: {}: {}", messageDTO.getTopic(), getConnectionId());
         }
@@ -213,7 +271,15 @@ public class MessageListViewController extends BaseConnectionController implemen
     }
 
     void setFilterPredicate(Predicate<MessagePropertiesDTO> filterPredicate) {
-        filteredMessages.setPredicate(filterPredicate);
+        this.filterPredicate = filterPredicate;
+        updatePredicate();
+    }
+
+    private void updatePredicate() {
+        filteredMessages.setPredicate(m -> filterPredicate.test(m) && messageSearch.test(m));
+
+        // Latest values may already be evicted from the store and its index, they are few enough to match directly.
+        filteredLatestValues.setPredicate(m -> filterPredicate.test(m) && messageSearch.getQuery().test(m));
     }
 
 
@@ -238,23 +304,10 @@ public class MessageListViewController extends BaseConnectionController implemen
 
         delegate.setTabDirty();
 
-        if (messageDTO.getPublishStatus() != null && messageDTO.getPublishStatus().equals(PublishStatus.PUBLISEHD)) {
-            messages.stream()
-                    .filter(m -> m.getMessageId().equals(messageDTO.getMessageId()))
-                    .findFirst()
-                    .ifPresentOrElse(m -> m.setPublishStatus(PublishStatus.PUBLISEHD), () -> addMessage(messageDTO));
-            return;
-        } else if (messageDTO.getPublishStatus() != null && messageDTO.getPublishStatus().equals(PublishStatus.SUCCEEDED)) {
-            messages.stream()
-                    .filter(m -> m.getMessageId().equals(messageDTO.getMessageId()))
-                    .findFirst()
-                    .ifPresentOrElse(m -> m.setPublishStatus(PublishStatus.SUCCEEDED), () -> addMessage(messageDTO));
-            return;
-        } else if (messageDTO.getPublishStatus() != null && messageDTO.getPublishStatus().equals(PublishStatus.FAILED)) {
-            messages.stream()
-                    .filter(m -> m.getMessageId().equals(messageDTO.getMessageId()))
-                    .findFirst()
-                    .ifPresentOrElse(m -> m.setPublishStatus(PublishStatus.FAILED), () -> addMessage(messageDTO));
+        PublishStatus publishStatus = messageDTO.getPublishStatus();
+        if (publishStatus != null) {
+            // Outgoing messages go to the store directly, runLater keeps the status updates of a message in order.
+            Platform.runLater(() -> onPublishStatus(messageDTO, publishStatus));
             return;
         }
 
@@ -263,21 +316,38 @@ public class MessageListViewController extends BaseConnectionController implemen
         }
     }
 
+    // Counted until the message is shown, the ingest workers of the connection wait while too many are pending.
     private void addMessage(MessagePropertiesDTO messageDTO) {
-        final MessagePropertiesDTO updatedMessageDTO = executeOnMessageIncomingExtensions(messageDTO);
-        Platform.runLater(() -> {
-            messages.add(0, updatedMessageDTO);
-            clearMessagesButton.setDisable(false);
-        });
+        ingestBacklog.added(1);
+        incomingHookStage.offer(messageDTO);
     }
 
-    private MessagePropertiesDTO executeOnMessageIncomingExtensions(MessagePropertiesDTO messageDTO) {
-        MessageExtensionDTO messageExtensionDTO = new MessageExtensionDTO(messageDTO);
-        for (IncomingMessageHook p : PluginManager.getInstance().getExtensions(IncomingMessageHook.class)) {
-            LOGGER.info("Incoming {}", p);
-            messageExtensionDTO = p.onMessageIncoming(getConnectionId(), messageExtensionDTO);
+    private void onPublishStatus(MessagePropertiesDTO messageDTO, PublishStatus publishStatus) {
+        MessagePropertiesDTO storedMessage = messageStore.get(messageDTO.getId());
+        if (storedMessage != null) {
+            storedMessage.setPublishStatus(publishStatus);
+            messageStore.update(storedMessage);
+            latestValueStore.update(storedMessage);
+            return;
         }
-        return messageExtensionDTO.merge(messageDTO);
+
+        List<MessagePropertiesDTO> batch = List.of(messageDTO);
+        messageStore.addAll(batch);
+        latestValueStore.addAll(batch);
+        clearMessagesButton.setDisable(false);
+    }
+
+    private void onMessagesFlushed(List<MessagePropertiesDTO> batch) {
+        ingestBacklog.removed(batch.size());
+        long start = System.nanoTime();
+        messageStore.addAll(batch);
+        latestValueStore.addAll(batch);
+        ingestTimings.record(IngestStage.STORE, System.nanoTime() - start, batch.size());
+        clearMessagesButton.setDisable(false);
+    }
+
+    public ReadOnlyIntegerProperty ingestBacklogProperty() {
+        return messageIngestBuffer.backlogProperty();
     }
 
     @FXML
@@ -291,6 +361,19 @@ public class MessageListViewController extends BaseConnectionController implemen
         DetailViewController.showAsDialog(getSelectedMessage(), getConnectionId(), this);
     }
 
+    @FXML
+    private void toggleLatestValues() {
+        listView.getSelectionModel().clearSelection();
+        copyToFormButton.setDisable(true);
+        showDetailsButton.setDisable(true);
+
+        if (latestValuesButton.isSelected()) {
+            listView.setItems(new SortedList<>(filteredLatestValues, Comparator.comparing(MessagePropertiesDTO::getTopic)));
+        } else {
+            listView.setItems(filteredMessages);
+        }
+    }
+
     @FXML
     private void toggleDetailView() {
         if (showDetailViewButton.isSelected()) {
@@ -20,6 +20,7 @@ import org.correomqtt.gui.model.WindowProperty;
 import org.correomqtt.gui.model.WindowType;
 import org.correomqtt.gui.utils.HostServicesHolder;
 import org.correomqtt.gui.utils.WindowHelper;
+import org.correomqtt.plugin.manager.HookStatistics;
 import org.correomqtt.plugin.manager.PermissionPlugin;
 import org.correomqtt.plugin.manager.PluginManager;
 import org.correomqtt.plugin.manager.PluginSecurityPolicy;
@@ -62,6 +63,36 @@ public class PluginsViewController extends BaseController {
     @FXML
     private TableColumn<PluginWrapper, String> fileColumn;
 
+    @FXML
+    private TableView<HookStatistics> hookStatisticsTableView;
+
+    @FXML
+    private TableColumn<HookStatistics, String> hookTypeColumn;
+
+    @FXML
+    private TableColumn<HookStatistics, String> hookPluginColumn;
+
+    @FXML
+    private TableColumn<HookStatistics, String> hookExtensionColumn;
+
+    @FXML
+    private TableColumn<HookStatistics, Long> hookInvocationsColumn;
+
+    @FXML
+    private TableColumn<HookStatistics, String> hookP50Column;
+
+    @FXML
+    private TableColumn<HookStatistics, String> hookP99Column;
+
+    @FXML
+    private TableColumn<HookStatistics, Long> hookOverrunsColumn;
+
+    @FXML
+    private TableColumn<HookStatistics, Long> hookTimeoutsColumn;
+
+    @FXML
+    private TableColumn<HookStatistics, String> hookStatusColumn;
+
     @FXML
     private Label statusText;
 
@@ -86,6 +117,7 @@ public class PluginsViewController extends BaseController {
     public void initialize() {
         this.pluginSystem = PluginManager.getInstance();
         setUpTable();
+        setUpHookStatisticsTable();
     }
 
     private void setUpTable() {
@@ -102,6 +134,29 @@ public class PluginsViewController extends BaseController {
         pluginsTableView.setRowFactory(this::getRowFactory);
     }
 
+    private void setUpHookStatisticsTable() {
+        hookTypeColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().getHookType()));
+        hookPluginColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().getPluginId()));
+        hookExtensionColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().getExtensionId()));
+        hookInvocationsColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().getInvocations()));
+        hookP50Column.setCellValueFactory(cellData -> new SimpleObjectProperty<>(formatLatency(cellData.getValue().getPercentileNanos(0.5))));
+        hookP99Column.setCellValueFactory(cellData -> new SimpleObjectProperty<>(formatLatency(cellData.getValue().getPercentileNanos(0.99))));
+        hookOverrunsColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().getOverruns()));
+        hookTimeoutsColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().getTimeouts()));
+        hookStatusColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().isDisabled() ? "Disabled" : "Active"));
+        onRefreshHookStatistics();
+    }
+
+    // Percentiles are bucket bounds, so sub millisecond precision is all there is.
+    private static String formatLatency(long nanos) {
+        return String.format("< %.3f ms", nanos / 1_000_000d);
+    }
+
+    @FXML
+    public void onRefreshHookStatistics() {
+        hookStatisticsTableView.setItems(FXCollections.observableArrayList(pluginSystem.getHookStatistics()));
+    }
+
     private SimpleObjectProperty<CheckBox> getIsEnabledCellData(TableColumn.CellDataFeatures<PluginWrapper, CheckBox> cellData) {
         CheckBox checkBox = new CheckBox();
         checkBox.selectedProperty().setValue(!cellData.getValue().getPluginState().equals(PluginState.DISABLED));
@@ -155,6 +210,12 @@ public class PluginsViewController extends BaseController {
         return row;
     }
 
+    @FXML
+    public void onReloadHooks() {
+        PluginConfigProvider.getInstance().reloadHooks();
+        onRefreshHookStatistics();
+    }
+
     @FXML
     public void onOpenPluginFolder() {
         HostServicesHolder.getInstance().getHostServices().showDocument(new File(PluginConfigProvider.getInstance().getPluginPath()).toURI().toString());
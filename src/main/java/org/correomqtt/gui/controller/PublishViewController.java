@@ -39,6 +39,7 @@ import org.correomqtt.business.provider.PersistPublishHistoryProvider;
 import org.correomqtt.business.provider.PersistPublishMessageHistoryProvider;
 import org.correomqtt.business.provider.SettingsProvider;
 import org.correomqtt.business.utils.AutoFormatPayload;
+import org.correomqtt.business.utils.MessageIds;
 import org.correomqtt.gui.business.TaskFactory;
 import org.correomqtt.gui.cell.QosCell;
 import org.correomqtt.gui.cell.TopicCell;
@@ -60,7 +61,6 @@ import java.time.LocalDateTime;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ResourceBundle;
-import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class PublishViewController extends BaseMessageBasedViewController implements ConnectionLifecycleObserver,
@@ -212,7 +212,7 @@ public class PublishViewController extends BaseMessageBasedViewController implem
                 .qos(qosComboBox.getSelectionModel().getSelectedItem())
                 .isRetained(retainedCheckBox.isSelected())
                 .payload(payloadCodeArea.getText())
-                .messageId(UUID.randomUUID().toString())
+                .id(MessageIds.next())
                 .messageType(MessageType.OUTGOING)
                 .dateTime(LocalDateTime.now())
                 .build();
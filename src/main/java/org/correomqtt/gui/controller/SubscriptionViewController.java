@@ -11,14 +11,21 @@ import org.correomqtt.business.dispatcher.SubscribeObserver;
 import org.correomqtt.business.dispatcher.UnsubscribeDispatcher;
 import org.correomqtt.business.dispatcher.UnsubscribeObserver;
 import org.correomqtt.business.exception.CorreoMqttException;
+import org.correomqtt.business.ingest.IngestStage;
+import org.correomqtt.business.ingest.IngestTimings;
+import org.correomqtt.business.ingest.MessageIngestPipeline;
 import org.correomqtt.business.model.ControllerType;
+import org.correomqtt.business.model.IngestOverflowPolicy;
 import org.correomqtt.business.model.MessageDTO;
 import org.correomqtt.business.model.Qos;
 import org.correomqtt.business.model.SubscriptionDTO;
 import org.correomqtt.business.provider.PersistSubscriptionHistoryProvider;
 import org.correomqtt.business.provider.SettingsProvider;
+import org.correomqtt.business.topic.TopicTrie;
 import org.correomqtt.business.utils.ConnectionHolder;
+import org.correomqtt.business.utils.CorreoMqttConnection;
 import org.correomqtt.gui.business.TaskFactory;
+import org.correomqtt.gui.business.TopicMatchCache;
 import org.correomqtt.gui.cell.QosCell;
 import org.correomqtt.gui.cell.SubscriptionViewCell;
 import org.correomqtt.gui.cell.TopicCell;
@@ -30,25 +37,32 @@ import org.correomqtt.gui.model.MessagePropertiesDTO;
 import org.correomqtt.gui.model.SubscriptionPropertiesDTO;
 import org.correomqtt.gui.transformer.MessageTransformer;
 import org.correomqtt.gui.transformer.SubscriptionTransformer;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
+import javafx.scene.control.Tooltip;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.AnchorPane;
+import javafx.util.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.text.MessageFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.ResourceBundle;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
 
 public class SubscriptionViewController extends BaseMessageBasedViewController implements
         SubscribeObserver,
@@ -77,6 +91,12 @@ public class SubscriptionViewController extends BaseMessageBasedViewController i
     @FXML
     private Button unsubscribeButton;
 
+    @FXML
+    private Label ingestTimingsLabel;
+
+    @FXML
+    private Tooltip ingestTimingsTooltip;
+
     @FXML
     private Button unsubscribeAllButton;
 
@@ -86,6 +106,9 @@ public class SubscriptionViewController extends BaseMessageBasedViewController i
     @FXML
     private Button selectNoneButton;
     private boolean afterSubscribe;
+    private final Map<String, SubscriptionPropertiesDTO> messageSubscriptions = new ConcurrentHashMap<>();
+    private final Timeline ingestStatsTimeline = new Timeline(new KeyFrame(Duration.seconds(1), event -> updateIngestStats()));
+    private long loggedIngestMessages;
 
     public SubscriptionViewController(String connectionId, SubscriptionViewDelegate delegate) {
         super(connectionId);
@@ -116,6 +139,9 @@ public class SubscriptionViewController extends BaseMessageBasedViewController i
 
         subscriptionListView.setItems(FXCollections.observableArrayList(SubscriptionPropertiesDTO.extractor()));
         subscriptionListView.setCellFactory(this::createCell);
+        ingestStatsTimeline.setCycleCount(Animation.INDEFINITE);
+        ingestTimingsLabel.managedProperty().bind(ingestTimingsLabel.visibleProperty());
+        ingestTimingsLabel.setVisible(false);
 
         unsubscribeButton.setDisable(true);
         unsubscribeAllButton.setDisable(true);
@@ -294,8 +320,12 @@ public class SubscriptionViewController extends BaseMessageBasedViewController i
 
     @Override
     public void onMessageIncoming(MessageDTO messageDTO, SubscriptionDTO subscriptionDTO) {
-        MessagePropertiesDTO messagePropertiesDTO = MessageTransformer.dtoToProps(messageDTO);
-        messagePropertiesDTO.getSubscriptionDTOProperty().setValue(SubscriptionTransformer.dtoToProps(subscriptionDTO));
+        long start = System.nanoTime();
+        // All messages of a subscription share one snapshot of it.
+        SubscriptionPropertiesDTO subscriptionPropertiesDTO = messageSubscriptions.computeIfAbsent(subscriptionDTO.getTopic(),
+                topic -> SubscriptionTransformer.dtoToProps(subscriptionDTO));
+        MessagePropertiesDTO messagePropertiesDTO = MessageTransformer.dtoToProps(messageDTO, subscriptionPropertiesDTO);
+        getIngestTimings().record(IngestStage.DECODE, System.nanoTime() - start);
         messageListViewController.onNewMessage(messagePropertiesDTO);
     }
 
@@ -310,6 +340,7 @@ public class SubscriptionViewController extends BaseMessageBasedViewController i
 
         SubscriptionPropertiesDTO subscriptionPropertiesDTO = SubscriptionTransformer.dtoToProps(subscriptionDTO);
         subscriptionListView.getItems().add(0, subscriptionPropertiesDTO);
+        ingestStatsTimeline.play();
         unsubscribeAllButton.setDisable(false);
         selectAllButton.setDisable(false); //TODO disable on demand
         selectNoneButton.setDisable(false); //TODO disable on demand
@@ -337,20 +368,95 @@ public class SubscriptionViewController extends BaseMessageBasedViewController i
         AlertHelper.warn(resources.getString("subscribeViewControllerSubscriptionFailedTitle") + ": ", msg);
     }
 
+    private MessageIngestPipeline getIngestPipeline() {
+        CorreoMqttConnection connection = ConnectionHolder.getInstance().getConnection(getConnectionId());
+        return connection == null ? null : connection.getIngestPipeline();
+    }
+
+    private void updateIngestStats() {
+        MessageIngestPipeline ingestPipeline = getIngestPipeline();
+        if (ingestPipeline == null) {
+            return;
+        }
+
+        subscriptionListView.getItems().forEach(s -> {
+            s.setDroppedMessages(ingestPipeline.getDroppedMessages(s.getTopic()));
+            s.setConflatedMessages(ingestPipeline.getConflatedMessages(s.getTopic()));
+        });
+
+        IngestTimings timings = ingestPipeline.getTimings();
+        long messages = timings.getTotalMessages();
+        if (messages != loggedIngestMessages) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug(getConnectionMarker(), "Ingest timings per message (avg/max): {}", timings);
+            }
+            showIngestTimings(timings, messages);
+        }
+        loggedIngestMessages = messages;
+    }
+
+    private void showIngestTimings(IngestTimings timings, long messages) {
+        long totalNanos = 0;
+        StringBuilder stages = new StringBuilder();
+        for (IngestStage stage : IngestStage.values()) {
+            totalNanos += timings.getAverageNanos(stage);
+            if (stages.length() > 0) {
+                stages.append('\n');
+            }
+            stages.append(MessageFormat.format(resources.getString("subscriptionViewIngestStageTooltip"),
+                    resources.getString("ingestStage" + stage.name()),
+                    toMillis(timings.getAverageNanos(stage)),
+                    toMillis(timings.getMaxNanos(stage))));
+        }
+
+        ingestTimingsLabel.setText(MessageFormat.format(resources.getString("subscriptionViewIngestTimingsLabel"),
+                messages, toMillis(totalNanos)));
+        ingestTimingsTooltip.setText(stages.toString());
+        ingestTimingsLabel.setVisible(messages > 0);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000d;
+    }
+
+    @Override
+    public IngestOverflowPolicy getOverflowPolicy(SubscriptionPropertiesDTO dto) {
+        MessageIngestPipeline ingestPipeline = getIngestPipeline();
+        if (ingestPipeline == null) {
+            return dto.getOverflowPolicy();
+        }
+        return ingestPipeline.getOverflowPolicy(dto.getTopic());
+    }
+
+    @Override
+    public void setOverflowPolicy(SubscriptionPropertiesDTO dto, IngestOverflowPolicy overflowPolicy) {
+        dto.setOverflowPolicy(overflowPolicy);
+        MessageIngestPipeline ingestPipeline = getIngestPipeline();
+        if (ingestPipeline != null) {
+            ingestPipeline.setOverflowPolicy(dto.getTopic(), overflowPolicy);
+        }
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Overflow policy of '{}' set to {}: {}", dto.getTopic(), overflowPolicy, getConnectionId());
+        }
+    }
+
     private void updateFilter() {
 
-        Set<String> filteredTopics = subscriptionListView.getItems()
-                                                         .stream()
-                                                         .filter(dto -> dto.getFilteredProperty().getValue())
-                                                         .map(dto -> dto.getTopicProperty().getValue())
-                                                         .collect(Collectors.toSet());
+        // Matching by topic instead of by subscription also shows messages that came in via an overlapping one.
+        TopicTrie<SubscriptionPropertiesDTO> filteredSubscriptions = new TopicTrie<>();
+        subscriptionListView.getItems()
+                            .stream()
+                            .filter(dto -> dto.getFilteredProperty().getValue())
+                            .forEach(dto -> filteredSubscriptions.put(dto.getTopic(), dto));
 
+        TopicMatchCache filteredTopics = new TopicMatchCache(filteredSubscriptions::hasMatch);
         messageListViewController.setFilterPredicate(m -> {
             SubscriptionPropertiesDTO subscription = m.getSubscription();
             if (subscription == null) {
                 return false;
             }
-            return filteredTopics.contains(subscription.getTopic());
+            return filteredTopics.test(m);
 
         });
 
@@ -396,6 +502,7 @@ public class SubscriptionViewController extends BaseMessageBasedViewController i
 
     @Override
     public void onDisconnect() {
+        ingestStatsTimeline.stop();
         subscriptionListView.getItems().clear();
     }
 
@@ -451,6 +558,7 @@ public class SubscriptionViewController extends BaseMessageBasedViewController i
 
     @Override
     public void onUnsubscribeSucceeded(SubscriptionDTO subscriptionDTO) {
+        messageSubscriptions.remove(subscriptionDTO.getTopic());
 
         SubscriptionPropertiesDTO subscriptionToRemove = subscriptionListView.getItems().stream()
                                                                              .filter(s -> s.getTopic().equals(subscriptionDTO.getTopic()))
@@ -4,6 +4,10 @@ import org.fxmisc.richtext.model.StyleSpans;
 
 import java.util.Collection;
 
+/**
+ * Format that keeps the text it works on, so it can not be shared between threads. Still supported through
+ * {@link LegacyFormatAdapter}, new formats should implement {@link PayloadFormat}.
+ */
 public interface Format {
 
     void setText(String text);
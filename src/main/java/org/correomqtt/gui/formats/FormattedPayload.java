@@ -0,0 +1,48 @@
+package org.correomqtt.gui.formats;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.fxmisc.richtext.model.StyleSpans;
+import org.fxmisc.richtext.model.StyleSpansBuilder;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * A payload formatted by a {@link PayloadFormat}, with the text and styles to show. Does not change once created, so
+ * it can be computed off the FX thread and shown or cached later.
+ */
+@Getter
+@AllArgsConstructor
+public class FormattedPayload {
+
+    /**
+     * Result for payloads that are not of the format.
+     */
+    public static final FormattedPayload INVALID = new FormattedPayload(false, false, "", null, null);
+
+    private final boolean valid;
+    // False if there is nothing to switch between, e.g. for plain text.
+    private final boolean formatable;
+    private final String prettyString;
+    // Null if the paragraphs are styled as they become visible, see paragraphFormat.
+    private final StyleSpans<Collection<String>> fxSpans;
+    private final ParagraphFormat paragraphFormat;
+
+    public static FormattedPayload of(String prettyString, StyleSpans<Collection<String>> fxSpans) {
+        return new FormattedPayload(true, true, prettyString, fxSpans, null);
+    }
+
+    /**
+     * For large payloads, see {@link ParagraphFormat#LARGE_PAYLOAD_CHARS}.
+     */
+    public static FormattedPayload ofParagraphs(String prettyString, ParagraphFormat paragraphFormat) {
+        return new FormattedPayload(true, true, prettyString, null, paragraphFormat);
+    }
+
+    public static FormattedPayload unformatted(String text) {
+        StyleSpansBuilder<Collection<String>> spansBuilder = new StyleSpansBuilder<>();
+        spansBuilder.add(Collections.emptyList(), text.length());
+        return new FormattedPayload(true, false, text, spansBuilder.create(), null);
+    }
+}
@@ -0,0 +1,23 @@
+package org.correomqtt.gui.formats;
+
+/**
+ * Runs a {@link Format} as {@link PayloadFormat}. A {@link Format} keeps the text it works on, so calls to one
+ * instance take turns.
+ */
+public class LegacyFormatAdapter implements PayloadFormat {
+
+    private final Format format;
+
+    public LegacyFormatAdapter(Format format) {
+        this.format = format;
+    }
+
+    @Override
+    public synchronized FormattedPayload format(String payload) {
+        format.setText(payload);
+        if (!format.isValid()) {
+            return FormattedPayload.INVALID;
+        }
+        return new FormattedPayload(true, format.isFormatable(), format.getPrettyString(), format.getFxSpans(), null);
+    }
+}
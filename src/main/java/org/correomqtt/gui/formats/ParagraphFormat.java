@@ -0,0 +1,25 @@
+package org.correomqtt.gui.formats;
+
+import org.fxmisc.richtext.model.StyleSpans;
+
+import java.util.Collection;
+
+/**
+ * A {@link PayloadFormat} that can style each paragraph of its pretty string on its own. For large payloads it does
+ * not need to compute spans for the whole text, only the paragraphs that are scrolled into view get styled.
+ */
+public interface ParagraphFormat extends PayloadFormat {
+
+    /**
+     * From this length of the pretty string on, {@link #format(String)} should return
+     * {@link FormattedPayload#ofParagraphs(String, ParagraphFormat)} instead of computing all spans.
+     */
+    int LARGE_PAYLOAD_CHARS = 256 * 1024;
+
+    /**
+     * Called on the FX application thread, with one line of a pretty string returned by {@link #format(String)}.
+     *
+     * @return Spans covering exactly the paragraph.
+     */
+    StyleSpans<Collection<String>> formatParagraph(String paragraph);
+}
@@ -0,0 +1,21 @@
+package org.correomqtt.gui.formats;
+
+/**
+ * A payload format without state. One instance may format any number of payloads at the same time and on any
+ * thread, so formats are detected for several payloads at once and never on the FX thread.
+ */
+public interface PayloadFormat {
+
+    /**
+     * @return {@link FormattedPayload#INVALID} if the payload is not of this format.
+     */
+    FormattedPayload format(String payload);
+
+    /**
+     * Cheap check, e.g. on the first characters, whether the payload may be of this format. Detection only formats
+     * payloads with the formats that pass it.
+     */
+    default boolean mayFormat(String payload) {
+        return true;
+    }
+}
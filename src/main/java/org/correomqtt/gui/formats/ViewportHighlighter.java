@@ -0,0 +1,141 @@
+package org.correomqtt.gui.formats;
+
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import org.fxmisc.richtext.CodeArea;
+import org.fxmisc.richtext.model.StyleSpans;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Styles the paragraphs of a large payload as they are scrolled into view, plus a margin around them. Each paragraph
+ * is styled once, the styles stay in the {@link CodeArea}. Must be used on the FX application thread.
+ */
+public class ViewportHighlighter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ViewportHighlighter.class);
+
+    private static final int MARGIN_PARAGRAPHS = 50;
+    // Pretty printed payloads repeat many short lines, e.g. closing brackets.
+    private static final int MAX_CACHED_PARAGRAPH_CHARS = 120;
+    private static final int MAX_CACHED_PARAGRAPHS = 4096;
+
+    private static final Object PROPERTY_KEY = ViewportHighlighter.class;
+
+    private final CodeArea codeArea;
+    private final FormattedPayload formattedPayload;
+    private final BitSet styled = new BitSet();
+    private final Map<String, StyleSpans<Collection<String>>> paragraphCache = new HashMap<>();
+    private final InvalidationListener visibleParagraphsListener = observable -> scheduleUpdate();
+
+    private boolean updateScheduled;
+    private boolean disposed;
+
+    private ViewportHighlighter(CodeArea codeArea, FormattedPayload formattedPayload) {
+        this.codeArea = codeArea;
+        this.formattedPayload = formattedPayload;
+    }
+
+    /**
+     * @return True if the payload should not be styled as a whole. False if there is nothing to style it with.
+     */
+    public static boolean isNeeded(FormattedPayload formattedPayload) {
+        if (formattedPayload.getFxSpans() == null) {
+            return formattedPayload.getParagraphFormat() != null;
+        }
+        return formattedPayload.isFormatable() && formattedPayload.getPrettyString().length() >= ParagraphFormat.LARGE_PAYLOAD_CHARS;
+    }
+
+    /**
+     * Starts styling the code area, which must already show the pretty string of the payload.
+     */
+    public static void install(CodeArea codeArea, FormattedPayload formattedPayload) {
+        uninstall(codeArea);
+        ViewportHighlighter highlighter = new ViewportHighlighter(codeArea, formattedPayload);
+        codeArea.getProperties().put(PROPERTY_KEY, highlighter);
+        codeArea.getVisibleParagraphs().addListener(highlighter.visibleParagraphsListener);
+        highlighter.scheduleUpdate();
+    }
+
+    /**
+     * Stops styling, e.g. before the text is replaced. Does nothing if no highlighter is installed.
+     */
+    public static void uninstall(CodeArea codeArea) {
+        Object highlighter = codeArea.getProperties().remove(PROPERTY_KEY);
+        if (highlighter instanceof ViewportHighlighter) {
+            ((ViewportHighlighter) highlighter).dispose();
+        }
+    }
+
+    private void dispose() {
+        disposed = true;
+        codeArea.getVisibleParagraphs().removeListener(visibleParagraphsListener);
+    }
+
+    // Scrolling changes the visible paragraphs many times per frame, style once afterwards.
+    private void scheduleUpdate() {
+        if (!updateScheduled) {
+            updateScheduled = true;
+            Platform.runLater(this::update);
+        }
+    }
+
+    private void update() {
+        updateScheduled = false;
+        if (disposed || codeArea.getVisibleParagraphs().isEmpty()) {
+            return;
+        }
+
+        int first = Math.max(0, codeArea.firstVisibleParToAllParIndex() - MARGIN_PARAGRAPHS);
+        int last = Math.min(codeArea.getParagraphs().size() - 1, codeArea.lastVisibleParToAllParIndex() + MARGIN_PARAGRAPHS);
+        for (int paragraph = styled.nextClearBit(first); paragraph <= last; paragraph = styled.nextClearBit(paragraph + 1)) {
+            styled.set(paragraph);
+            style(paragraph);
+        }
+    }
+
+    private void style(int paragraph) {
+        int length = codeArea.getParagraphLength(paragraph);
+        if (length == 0) {
+            return;
+        }
+
+        try {
+            StyleSpans<Collection<String>> spans;
+            if (formattedPayload.getParagraphFormat() != null) {
+                spans = formatParagraph(codeArea.getText(paragraph));
+            } else {
+                StyleSpans<Collection<String>> allSpans = formattedPayload.getFxSpans();
+                int start = codeArea.getAbsolutePosition(paragraph, 0);
+                if (allSpans == null || start >= allSpans.length()) {
+                    return;
+                }
+                spans = allSpans.subView(start, Math.min(start + length, allSpans.length()));
+            }
+            codeArea.setStyleSpans(paragraph, 0, spans);
+        } catch (Exception e) {
+            LOGGER.error("Styling paragraph {} failed. ", paragraph, e);
+        }
+    }
+
+    private StyleSpans<Collection<String>> formatParagraph(String text) {
+        if (text.length() > MAX_CACHED_PARAGRAPH_CHARS) {
+            return formattedPayload.getParagraphFormat().formatParagraph(text);
+        }
+
+        StyleSpans<Collection<String>> spans = paragraphCache.get(text);
+        if (spans == null) {
+            spans = formattedPayload.getParagraphFormat().formatParagraph(text);
+            if (paragraphCache.size() >= MAX_CACHED_PARAGRAPHS) {
+                paragraphCache.clear();
+            }
+            paragraphCache.put(text, spans);
+        }
+        return spans;
+    }
+}
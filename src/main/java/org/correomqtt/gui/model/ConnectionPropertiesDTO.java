@@ -25,6 +25,8 @@ public class ConnectionPropertiesDTO {
     private final StringProperty usernameProperty;
     private final StringProperty passwordProperty;
     private final BooleanProperty cleanSessionProperty;
+    private final BooleanProperty manualAcknowledgementProperty;
+    private final IntegerProperty receiveMaximumProperty;
     private final Property<CorreoMqttVersion> mqttVersionProperty;
     private final Property<TlsSsl> sslProperty;
     private final StringProperty sslKeystoreProperty;
@@ -57,6 +59,8 @@ public class ConnectionPropertiesDTO {
                 c.usernameProperty,
                 c.passwordProperty,
                 c.cleanSessionProperty,
+                c.manualAcknowledgementProperty,
+                c.receiveMaximumProperty,
                 c.mqttVersionProperty,
                 c.sslProperty,
                 c.sslKeystoreProperty,
@@ -113,6 +117,14 @@ public class ConnectionPropertiesDTO {
         return cleanSessionProperty.getValue();
     }
 
+    public boolean isManualAcknowledgement() {
+        return manualAcknowledgementProperty.getValue();
+    }
+
+    public Integer getReceiveMaximum() {
+        return receiveMaximumProperty.getValue();
+    }
+
     public CorreoMqttVersion getMqttVersion() {
         return mqttVersionProperty.getValue();
     }
@@ -217,6 +229,8 @@ public class ConnectionPropertiesDTO {
         private StringProperty usernameProperty = new SimpleStringProperty();
         private StringProperty passwordProperty = new SimpleStringProperty();
         private BooleanProperty cleanSessionProperty = new SimpleBooleanProperty();
+        private BooleanProperty manualAcknowledgementProperty = new SimpleBooleanProperty();
+        private IntegerProperty receiveMaximumProperty = new SimpleIntegerProperty();
         private Property<CorreoMqttVersion> mqttVersionProperty = new SimpleObjectProperty<>();
         private Property<TlsSsl> sslProperty = new SimpleObjectProperty<>();
         private StringProperty sslKeystoreProperty = new SimpleStringProperty();
@@ -281,6 +295,16 @@ public class ConnectionPropertiesDTO {
             return this;
         }
 
+        public ConnectionPropertiesDTOBuilder manualAcknowledgement(boolean manualAcknowledgement) {
+            this.manualAcknowledgementProperty.set(manualAcknowledgement);
+            return this;
+        }
+
+        public ConnectionPropertiesDTOBuilder receiveMaximum(Integer receiveMaximum) {
+            this.receiveMaximumProperty.set(receiveMaximum);
+            return this;
+        }
+
         public ConnectionPropertiesDTOBuilder mqttVersion(CorreoMqttVersion mqttVersion) {
             this.mqttVersionProperty.setValue(mqttVersion);
             return this;
@@ -405,6 +429,8 @@ public class ConnectionPropertiesDTO {
                     usernameProperty,
                     passwordProperty,
                     cleanSessionProperty,
+                    manualAcknowledgementProperty,
+                    receiveMaximumProperty,
                     mqttVersionProperty,
                     sslProperty,
                     sslKeystoreProperty,
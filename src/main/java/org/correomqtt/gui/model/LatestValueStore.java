@@ -0,0 +1,132 @@
+package org.correomqtt.gui.model;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.correomqtt.business.topic.TopicTrie;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps only the latest message of every topic, one row per topic. Rows are updated in place, so the size depends on
+ * the number of distinct topics and not on the number of messages. The rows have no particular order, the last row
+ * takes the place of a removed one. Must only be used on the FX application thread.
+ */
+public class LatestValueStore {
+
+    private final TopicTrie<Entry> entries = new TopicTrie<>();
+    private final ObservableList<MessagePropertiesDTO> rows = FXCollections.observableArrayList();
+
+    public ObservableList<MessagePropertiesDTO> getRows() {
+        return rows;
+    }
+
+    public Entry getEntry(String topic) {
+        return entries.get(topic);
+    }
+
+    /**
+     * @param batch Messages in order of arrival.
+     */
+    public void addAll(List<MessagePropertiesDTO> batch) {
+        List<Entry> added = new ArrayList<>();
+        List<Entry> updated = new ArrayList<>();
+
+        for (MessagePropertiesDTO messageDTO : batch) {
+            Entry entry = entries.get(messageDTO.getTopic());
+            if (entry == null) {
+                entry = new Entry(rows.size() + added.size());
+                entries.put(messageDTO.getTopic(), entry);
+                added.add(entry);
+            } else if (!entry.dirty && entry.row < rows.size()) {
+                entry.dirty = true;
+                updated.add(entry);
+            }
+            entry.update(messageDTO);
+        }
+
+        // Replace each row once, no matter how many messages the batch had for its topic.
+        for (Entry entry : updated) {
+            rows.set(entry.row, entry.message);
+            entry.dirty = false;
+        }
+
+        if (!added.isEmpty()) {
+            List<MessagePropertiesDTO> newRows = new ArrayList<>(added.size());
+            added.forEach(entry -> newRows.add(entry.message));
+            rows.addAll(newRows);
+        }
+    }
+
+    /**
+     * Tells the views of the rows that a message changed, e.g. its publish status.
+     *
+     * @return False if the message is not the latest one of its topic.
+     */
+    public boolean update(MessagePropertiesDTO messageDTO) {
+        Entry entry = entries.get(messageDTO.getTopic());
+        if (entry == null || entry.message != messageDTO) {
+            return false;
+        }
+        rows.set(entry.row, messageDTO);
+        return true;
+    }
+
+    public boolean remove(MessagePropertiesDTO messageDTO) {
+        Entry entry = entries.get(messageDTO.getTopic());
+        if (entry == null || entry.message != messageDTO) {
+            return false;
+        }
+
+        entries.remove(messageDTO.getTopic());
+        int last = rows.size() - 1;
+        if (entry.row != last) {
+            MessagePropertiesDTO moved = rows.get(last);
+            entries.get(moved.getTopic()).row = entry.row;
+            rows.set(entry.row, moved);
+        }
+        rows.remove(last);
+        return true;
+    }
+
+    public void clear() {
+        entries.clear();
+        rows.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public static final class Entry {
+
+        private int row;
+        private boolean dirty;
+        private MessagePropertiesDTO message;
+        private long messageCount;
+        private LocalDateTime lastUpdate;
+
+        private Entry(int row) {
+            this.row = row;
+        }
+
+        private void update(MessagePropertiesDTO messageDTO) {
+            message = messageDTO;
+            messageCount++;
+            lastUpdate = LocalDateTime.now();
+        }
+
+        public MessagePropertiesDTO getMessage() {
+            return message;
+        }
+
+        public long getMessageCount() {
+            return messageCount;
+        }
+
+        public LocalDateTime getLastUpdate() {
+            return lastUpdate;
+        }
+    }
+}
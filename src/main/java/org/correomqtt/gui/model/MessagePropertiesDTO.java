@@ -3,95 +3,352 @@ package org.correomqtt.gui.model;
 import org.correomqtt.business.model.MessageType;
 import org.correomqtt.business.model.PublishStatus;
 import org.correomqtt.business.model.Qos;
+import org.correomqtt.business.topic.TopicDictionary;
+import org.correomqtt.business.utils.CorreoCharsetDecoder;
 import org.correomqtt.business.utils.MessageDateTimeFormatter;
+import org.correomqtt.business.utils.MessageIds;
+import org.correomqtt.plugin.spi.MessageValidatorHook;
+import javafx.beans.InvalidationListener;
 import javafx.beans.Observable;
 import javafx.beans.property.*;
 import javafx.util.Callback;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Getter;
 
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Message as shown in the lists. The data is kept in an immutable {@link MessageRecord} that is replaced on every
+ * change. Observable properties are only created when asked for, e.g. by the cell showing the message or the detail
+ * view, so a message only stored in a list costs little more than its record.
+ * <p>
+ * The message itself is {@link Observable} and invalidated on every change. The lists do not observe their messages,
+ * the stores pass changes on to them when asked to.
+ */
+public class MessagePropertiesDTO implements Comparable<MessagePropertiesDTO>, Observable {
+
+    private volatile MessageRecord record;
+
+    // Decoded payload bytes, filled on first use of the whole payload.
+    private String decodedPayload;
+
+    // Last preview and the record it was made of, list cells ask for it on every update.
+    private String preview;
+    private MessageRecord previewRecord;
+    private int previewLength;
+
+    private List<InvalidationListener> listeners;
+
+    private StringProperty topicProperty;
+    private BooleanProperty isRetainedProperty;
+    private Property<Qos> qosProperty;
+    private Property<LocalDateTime> dateTimeProperty;
+    private Property<SubscriptionPropertiesDTO> subscriptionDTOProperty;
+    private Property<MessageType> messageTypeProperty;
+    private Property<PublishStatus> publishStatusProperty;
+
+    private long validatorVersion = -1;
+    private MessageValidatorHook.Validation validation;
+
+    private MessagePropertiesDTO(MessageRecord record) {
+        this.record = record;
+    }
 
-@Getter
-@AllArgsConstructor
-@Builder
-public class MessagePropertiesDTO implements Comparable<MessagePropertiesDTO> {
-
-    private final StringProperty topicProperty;
-    private final StringProperty payloadProperty;
-    private final BooleanProperty isRetainedProperty;
-    private final Property<Qos> qosProperty;
-    private final Property<LocalDateTime> dateTimeProperty;
-    private final Property<SubscriptionPropertiesDTO> subscriptionDTOProperty;
-    private final StringProperty messageIdProperty;
-    private final Property<MessageType> messageTypeProperty;
-    private final Property<PublishStatus> publishStatusProperty;
-    private final MapProperty<String, Object> extraProperties;
+    public static MessagePropertiesDTOBuilder builder() {
+        return new MessagePropertiesDTOBuilder();
+    }
 
     public static Callback<MessagePropertiesDTO, Observable[]> extractor() {
-        return (MessagePropertiesDTO m) -> new Observable[]{
-                m.topicProperty,
-                m.payloadProperty,
-                m.isRetainedProperty,
-                m.qosProperty,
-                m.dateTimeProperty,
-                m.subscriptionDTOProperty,
-                m.messageIdProperty,
-                m.messageTypeProperty,
-                m.publishStatusProperty,
-                m.extraProperties
-        };
+        return (MessagePropertiesDTO m) -> new Observable[]{m};
+    }
+
+    public MessageRecord getRecord() {
+        return record;
+    }
+
+    @Override
+    public void addListener(InvalidationListener listener) {
+        if (listeners == null) {
+            listeners = new ArrayList<>(1);
+        }
+        listeners.add(listener);
     }
 
+    @Override
+    public void removeListener(InvalidationListener listener) {
+        if (listeners != null) {
+            listeners.remove(listener);
+        }
+    }
+
+    public long getId() {
+        return record.getId();
+    }
+
+    /**
+     * @return The id as string, created on every call. The id never changes, the stores index messages by it.
+     */
     public String getMessageId() {
-        return messageIdProperty.get();
+        return MessageIds.toString(record.getId());
     }
 
     public String getTopic() {
-        return topicProperty.get();
+        return record.getTopic();
     }
 
-    public String getPayload() {
-        return payloadProperty.get();
+    public int getTopicId() {
+        return record.getTopicId();
     }
 
-    public void setPayload(String payload) {
-        payloadProperty.set(payload);
+    public void setTopic(String topic) {
+        set(topicProperty, getTopic(), topic, this::withTopic);
     }
 
     public StringProperty getTopicProperty() {
+        if (topicProperty == null) {
+            topicProperty = new SimpleStringProperty(getTopic());
+            bind(topicProperty, this::withTopic);
+        }
         return topicProperty;
     }
 
-    public Property<LocalDateTime> getDateTimeProperty() {
-        return dateTimeProperty;
+    public String getPayload() {
+        MessageRecord current = record;
+        if (current.getPayloadBytes() == null) {
+            return current.getPayload();
+        }
+        // Not part of the record, so filling the cache does not fire updates.
+        if (decodedPayload == null) {
+            decodedPayload = CorreoCharsetDecoder.decode(current.getPayloadBytes());
+        }
+        return decodedPayload;
+    }
+
+    public void setPayload(String payload) {
+        decodedPayload = null;
+        validatorVersion = -1;
+        update(record.withPayloadBytes(null).withPayload(payload));
+    }
+
+    /**
+     * @return The received payload bytes, null if the payload is text only.
+     */
+    public ByteBuffer getPayloadBuffer() {
+        byte[] payloadBytes = record.getPayloadBytes();
+        return payloadBytes == null ? null : ByteBuffer.wrap(payloadBytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * @param validatorVersion Version of the validators the cached validation must have been computed with.
+     */
+    public boolean hasValidation(long validatorVersion) {
+        return this.validatorVersion == validatorVersion;
+    }
+
+    public MessageValidatorHook.Validation getValidation() {
+        return validation;
+    }
+
+    public void setValidation(long validatorVersion, MessageValidatorHook.Validation validation) {
+        this.validatorVersion = validatorVersion;
+        this.validation = validation;
+    }
+
+    public String getPayloadPreview(int maxLength) {
+        MessageRecord current = record;
+        if (preview != null && previewRecord == current && previewLength == maxLength) {
+            return preview;
+        }
+
+        String updated;
+        if (current.getPayloadBytes() != null && decodedPayload == null) {
+            updated = CorreoCharsetDecoder.decodePreview(ByteBuffer.wrap(current.getPayloadBytes()), maxLength);
+        } else {
+            String payload = getPayload();
+            updated = payload == null ? "" : CorreoCharsetDecoder.toPreview(payload, maxLength);
+        }
+        preview = updated;
+        previewRecord = current;
+        previewLength = maxLength;
+        return updated;
+    }
+
+    /**
+     * Start of the payload, decoded without filling the cache, so it can be used off the FX thread.
+     */
+    public String getPayloadPrefix(int maxLength) {
+        MessageRecord current = record;
+        if (current.getPayloadBytes() != null) {
+            return CorreoCharsetDecoder.decodePrefix(ByteBuffer.wrap(current.getPayloadBytes()), maxLength);
+        }
+        String payload = current.getPayload();
+        if (payload == null) {
+            return "";
+        }
+        return payload.length() <= maxLength ? payload : payload.substring(0, maxLength);
+    }
+
+    /**
+     * Whole payload, decoded without filling the cache, so it can be used off the FX thread.
+     */
+    public String getPayloadUncached() {
+        MessageRecord current = record;
+        if (current.getPayloadBytes() != null) {
+            return CorreoCharsetDecoder.decode(current.getPayloadBytes());
+        }
+        return current.getPayload() == null ? "" : current.getPayload();
+    }
+
+    // Approximate heap bytes held by the payload.
+    public long getPayloadSize() {
+        MessageRecord current = record;
+        if (current.getPayloadBytes() != null) {
+            return current.getPayloadBytes().length + (decodedPayload == null ? 0 : 2L * decodedPayload.length());
+        }
+        return current.getPayload() == null ? 0 : 2L * current.getPayload().length();
     }
 
     public boolean isRetained() {
-        return isRetainedProperty.get();
+        return record.isRetained();
+    }
+
+    public void setRetained(boolean retained) {
+        set(isRetainedProperty, isRetained(), retained, record::withRetained);
+    }
+
+    public BooleanProperty getIsRetainedProperty() {
+        if (isRetainedProperty == null) {
+            isRetainedProperty = new SimpleBooleanProperty(isRetained());
+            isRetainedProperty.addListener((observable, oldValue, newValue) -> update(record.withRetained(newValue)));
+        }
+        return isRetainedProperty;
     }
 
     public Qos getQos() {
-        return qosProperty.getValue();
+        return record.getQos();
+    }
+
+    public void setQos(Qos qos) {
+        set(qosProperty, getQos(), qos, record::withQos);
+    }
+
+    public Property<Qos> getQosProperty() {
+        if (qosProperty == null) {
+            qosProperty = new SimpleObjectProperty<>(getQos());
+            bind(qosProperty, q -> record.withQos(q));
+        }
+        return qosProperty;
+    }
+
+    @MessageDateTimeFormatter
+    public LocalDateTime getDateTime() {
+        return record.getDateTime();
+    }
+
+    public void setDateTime(LocalDateTime dateTime) {
+        set(dateTimeProperty, getDateTime(), dateTime, d -> record.withDateTimeNanos(MessageRecord.toNanos(d)));
+    }
+
+    public Property<LocalDateTime> getDateTimeProperty() {
+        if (dateTimeProperty == null) {
+            dateTimeProperty = new SimpleObjectProperty<>(getDateTime());
+            bind(dateTimeProperty, d -> record.withDateTimeNanos(MessageRecord.toNanos(d)));
+        }
+        return dateTimeProperty;
     }
 
     public SubscriptionPropertiesDTO getSubscription() {
-        return subscriptionDTOProperty.getValue();
+        return record.getSubscription();
+    }
+
+    public void setSubscription(SubscriptionPropertiesDTO subscription) {
+        set(subscriptionDTOProperty, getSubscription(), subscription, record::withSubscription);
+    }
+
+    public Property<SubscriptionPropertiesDTO> getSubscriptionDTOProperty() {
+        if (subscriptionDTOProperty == null) {
+            subscriptionDTOProperty = new SimpleObjectProperty<>(getSubscription());
+            bind(subscriptionDTOProperty, s -> record.withSubscription(s));
+        }
+        return subscriptionDTOProperty;
     }
 
     public PublishStatus getPublishStatus() {
-        return publishStatusProperty.getValue();
+        return record.getPublishStatus();
     }
 
     public void setPublishStatus(PublishStatus publishStatus) {
-        publishStatusProperty.setValue(publishStatus);
+        set(publishStatusProperty, getPublishStatus(), publishStatus, record::withPublishStatus);
     }
 
-    @MessageDateTimeFormatter
-    public LocalDateTime getDateTime() {
-        return dateTimeProperty.getValue();
+    public Property<PublishStatus> getPublishStatusProperty() {
+        if (publishStatusProperty == null) {
+            publishStatusProperty = new SimpleObjectProperty<>(getPublishStatus());
+            bind(publishStatusProperty, p -> record.withPublishStatus(p));
+        }
+        return publishStatusProperty;
+    }
+
+    public MessageType getMessageType() {
+        return record.getMessageType();
+    }
+
+    public void setMessageType(MessageType messageType) {
+        set(messageTypeProperty, getMessageType(), messageType, record::withMessageType);
+    }
+
+    public Property<MessageType> getMessageTypeProperty() {
+        if (messageTypeProperty == null) {
+            messageTypeProperty = new SimpleObjectProperty<>(getMessageType());
+            bind(messageTypeProperty, t -> record.withMessageType(t));
+        }
+        return messageTypeProperty;
+    }
+
+    public Map<String, Object> getExtraProperties() {
+        Map<String, Object> extraProperties = record.getExtraProperties();
+        return extraProperties == null ? Collections.emptyMap() : extraProperties;
+    }
+
+    public void setExtraProperties(Map<String, Object> extraProperties) {
+        if (!getExtraProperties().equals(extraProperties)) {
+            update(record.withExtraProperties(extraProperties == null || extraProperties.isEmpty()
+                    ? null
+                    : Collections.unmodifiableMap(new HashMap<>(extraProperties))));
+        }
+    }
+
+    // Changes made through an existing property go through its listener, so the property stays in sync.
+    private <T> void set(Property<T> property, T current, T value, Function<T, MessageRecord> updater) {
+        if (property != null) {
+            property.setValue(value);
+        } else if (!Objects.equals(current, value)) {
+            update(updater.apply(value));
+        }
+    }
+
+    // A changed topic is no longer the one of the dictionary id.
+    private MessageRecord withTopic(String topic) {
+        return record.withTopic(topic).withTopicId(TopicDictionary.NO_ID);
+    }
+
+    private <T> void bind(Property<T> property, Function<T, MessageRecord> updater) {
+        property.addListener((observable, oldValue, newValue) -> update(updater.apply(newValue)));
+    }
+
+    private void update(MessageRecord updated) {
+        record = updated;
+        if (listeners != null) {
+            for (InvalidationListener listener : new ArrayList<>(listeners)) {
+                listener.invalidated(this);
+            }
+        }
     }
 
     @Override
@@ -99,25 +356,24 @@ public class MessagePropertiesDTO implements Comparable<MessagePropertiesDTO> {
         return "Message to " + getTopic() + " with QoS: " + getQos().ordinal() + " at " + getDateTime();
     }
 
+    // Messages are identified by their id, messages without one only by identity. Payloads are never compared.
     @Override
     public int hashCode() {
-        return (getTopic() + getPayload() + isRetained() + getQos() + getDateTime()).hashCode();
+        long id = record.getId();
+        return id == MessageIds.NONE ? System.identityHashCode(this) : Long.hashCode(id);
     }
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (!(o instanceof MessagePropertiesDTO)) {
             return false;
         }
 
-        MessagePropertiesDTO other = (MessagePropertiesDTO) o;
-
-        return ((other.getTopic() != null && other.getTopic().equals(getTopic())) || (other.getTopic() == null && getTopic() == null)) &&
-                ((other.getQos() != null && other.getQos().equals(getQos())) || (other.getQos() == null && getQos() == null)) &&
-                ((other.getPayload() != null && other.getPayload().equals(getPayload())) || (other.getPayload() == null && getPayload() == null)) &&
-                ((other.getDateTime() != null && other.getDateTime().equals(getDateTime())) || (other.getDateTime() == null && getDateTime() == null)) &&
-                ((other.getExtraProperties() != null && other.getExtraProperties().equals(getExtraProperties())) || (other.getExtraProperties() == null && getExtraProperties() == null)) &&
-                (other.isRetained() == isRetained());
+        long id = record.getId();
+        return id != MessageIds.NONE && id == ((MessagePropertiesDTO) o).record.getId();
     }
 
     @Override
@@ -133,85 +389,96 @@ public class MessagePropertiesDTO implements Comparable<MessagePropertiesDTO> {
         return other.getDateTime().compareTo(other.getDateTime());
     }
 
-    public MessageType getMessageType() {
-        return messageTypeProperty.getValue();
-    }
-
-    @SuppressWarnings({"FieldCanBeLocal", "unused"})
     public static class MessagePropertiesDTOBuilder {
 
-        private StringProperty topicProperty = new SimpleStringProperty();
-        private StringProperty payloadProperty = new SimpleStringProperty();
-        private BooleanProperty isRetainedProperty = new SimpleBooleanProperty(false);
-        private Property<Qos> qosProperty = new SimpleObjectProperty<>();
-        private Property<LocalDateTime> dateTimeProperty = new SimpleObjectProperty<>();
-        private Property<SubscriptionPropertiesDTO> subscriptionDTOProperty = new SimpleObjectProperty<>();
-        private StringProperty messageIdProperty = new SimpleStringProperty();
-        private Property<MessageType> messageTypeProperty = new SimpleObjectProperty<>();
-        private Property<PublishStatus> publishStatusProperty = new SimpleObjectProperty<>();
-        private SimpleMapProperty<String, Object> extraProperties = new SimpleMapProperty<>();
+        private String topic;
+        private int topicId;
+        private String payload;
+        private byte[] payloadBytes;
+        private boolean isRetained;
+        private Qos qos;
+        private LocalDateTime dateTime;
+        private SubscriptionPropertiesDTO subscription;
+        private long id;
+        private MessageType messageType;
+        private PublishStatus publishStatus;
 
         public MessagePropertiesDTOBuilder topic(String topic) {
-            this.topicProperty.set(topic);
+            this.topic = topic;
+            return this;
+        }
+
+        public MessagePropertiesDTOBuilder topicId(int topicId) {
+            this.topicId = topicId;
             return this;
         }
 
         public MessagePropertiesDTOBuilder payload(String payload) {
-            this.payloadProperty.set(payload);
+            this.payload = payload;
+            return this;
+        }
+
+        /**
+         * Copies the remaining bytes, the buffer itself is not kept.
+         */
+        public MessagePropertiesDTOBuilder payloadBuffer(ByteBuffer payloadBuffer) {
+            if (payloadBuffer == null) {
+                this.payloadBytes = null;
+            } else {
+                this.payloadBytes = new byte[payloadBuffer.remaining()];
+                payloadBuffer.duplicate().get(this.payloadBytes);
+            }
             return this;
         }
 
         public MessagePropertiesDTOBuilder isRetained(boolean isRetained) {
-            this.isRetainedProperty.set(isRetained);
+            this.isRetained = isRetained;
             return this;
         }
 
         public MessagePropertiesDTOBuilder qos(Qos qos) {
-            this.qosProperty.setValue(qos);
+            this.qos = qos;
             return this;
         }
 
         public MessagePropertiesDTOBuilder dateTime(LocalDateTime dateTime) {
-            this.dateTimeProperty.setValue(dateTime);
+            this.dateTime = dateTime;
             return this;
         }
 
         public MessagePropertiesDTOBuilder subscription(SubscriptionPropertiesDTO subscriptionPropertiesDTO) {
-            this.subscriptionDTOProperty.setValue(subscriptionPropertiesDTO);
+            this.subscription = subscriptionPropertiesDTO;
             return this;
         }
 
-        public MessagePropertiesDTOBuilder messageId(String messageId) {
-            this.messageIdProperty.set(messageId);
+        public MessagePropertiesDTOBuilder id(long id) {
+            this.id = id;
             return this;
         }
 
         public MessagePropertiesDTOBuilder messageType(MessageType messageType) {
-            this.messageTypeProperty.setValue(messageType);
+            this.messageType = messageType;
             return this;
         }
 
         public MessagePropertiesDTOBuilder publishStatus(PublishStatus publishStatus) {
-            this.publishStatusProperty.setValue(publishStatus);
-            return this;
-        }
-
-        private MessagePropertiesDTOBuilder extraProperties(HashMap<String, Object> extraProperties) {
-            this.extraProperties.putAll(extraProperties);
+            this.publishStatus = publishStatus;
             return this;
         }
 
         public MessagePropertiesDTO build() {
-            return new MessagePropertiesDTO(topicProperty,
-                    payloadProperty,
-                    isRetainedProperty,
-                    qosProperty,
-                    dateTimeProperty,
-                    subscriptionDTOProperty,
-                    messageIdProperty,
-                    messageTypeProperty,
-                    publishStatusProperty,
-                    extraProperties);
+            return new MessagePropertiesDTO(new MessageRecord(topic,
+                    topicId,
+                    payloadBytes,
+                    payloadBytes == null ? payload : null,
+                    isRetained,
+                    qos,
+                    MessageRecord.toNanos(dateTime),
+                    subscription,
+                    id,
+                    messageType,
+                    publishStatus,
+                    null));
         }
     }
 }
@@ -0,0 +1,62 @@
+package org.correomqtt.gui.model;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.With;
+import org.correomqtt.business.model.MessageType;
+import org.correomqtt.business.model.PublishStatus;
+import org.correomqtt.business.model.Qos;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+/**
+ * Immutable data of one message as kept in the message lists. Only plain values, the timestamp is a primitive and the
+ * payload stays in its received bytes. {@link MessagePropertiesDTO} wraps it and creates observable properties on
+ * demand.
+ */
+@Getter
+@With(AccessLevel.PACKAGE)
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public final class MessageRecord {
+
+    static final long NO_DATE_TIME = Long.MIN_VALUE;
+
+    private final String topic;
+    // See TopicDictionary, NO_ID if the topic did not pass one.
+    private final int topicId;
+    // Either the received bytes or the text, e.g. of a message published from the form.
+    @Getter(AccessLevel.PACKAGE)
+    private final byte[] payloadBytes;
+    private final String payload;
+    private final boolean retained;
+    private final Qos qos;
+    private final long dateTimeNanos;
+    private final SubscriptionPropertiesDTO subscription;
+    // See MessageIds.
+    private final long id;
+    private final MessageType messageType;
+    private final PublishStatus publishStatus;
+    // Null while empty, most messages never get any.
+    private final Map<String, Object> extraProperties;
+
+    public LocalDateTime getDateTime() {
+        return toDateTime(dateTimeNanos);
+    }
+
+    static long toNanos(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return NO_DATE_TIME;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+    }
+
+    static LocalDateTime toDateTime(long nanos) {
+        if (nanos == NO_DATE_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,170 @@
+package org.correomqtt.gui.model;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Messages of a {@link MessageStore} in order of arrival, seen as a list with the newest message at index 0. Adding
+ * new and removing the oldest messages takes constant time, removing any other message moves the shorter side of the
+ * ring. The list is read-only, only the store changes it.
+ */
+final class MessageRingBuffer extends ObservableListBase<MessagePropertiesDTO> {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private Entry[] entries = new Entry[INITIAL_CAPACITY];
+    // Slot of the oldest entry, positions count from it.
+    private int oldest;
+    private int size;
+
+    @Override
+    public MessagePropertiesDTO get(int index) {
+        Objects.checkIndex(index, size);
+        return entries[slot(size - 1 - index)].message;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param skip Number of older entries to skip.
+     */
+    Entry getOldest(int skip) {
+        Objects.checkIndex(skip, size);
+        return entries[slot(skip)];
+    }
+
+    /**
+     * @param added Entries in order of arrival.
+     */
+    void addNewest(List<Entry> added) {
+        ensureCapacity(size + added.size());
+        for (Entry entry : added) {
+            entries[slot(size)] = entry;
+            size++;
+        }
+
+        beginChange();
+        nextAdd(0, added.size());
+        endChange();
+    }
+
+    void removeOldest(int count) {
+        List<MessagePropertiesDTO> removed = new ArrayList<>(count);
+        for (int position = count - 1; position >= 0; position--) {
+            removed.add(entries[slot(position)].message);
+        }
+        for (int position = 0; position < count; position++) {
+            entries[slot(position)] = null;
+        }
+        oldest = slot(count);
+        size -= count;
+
+        beginChange();
+        nextRemove(size, removed);
+        endChange();
+    }
+
+    void removeAt(int index) {
+        Objects.checkIndex(index, size);
+        int position = size - 1 - index;
+        MessagePropertiesDTO removed = entries[slot(position)].message;
+        if (position < size / 2) {
+            for (int p = position; p > 0; p--) {
+                entries[slot(p)] = entries[slot(p - 1)];
+            }
+            entries[oldest] = null;
+            oldest = slot(1);
+        } else {
+            for (int p = position; p < size - 1; p++) {
+                entries[slot(p)] = entries[slot(p + 1)];
+            }
+            entries[slot(size - 1)] = null;
+        }
+        size--;
+
+        beginChange();
+        nextRemove(index, removed);
+        endChange();
+    }
+
+    /**
+     * Tells the views that the message at the index changed.
+     */
+    void replaced(int index) {
+        beginChange();
+        nextSet(index, get(index));
+        endChange();
+    }
+
+    void removeAllEntries() {
+        if (size == 0) {
+            return;
+        }
+        List<MessagePropertiesDTO> removed = new ArrayList<>(this);
+        Arrays.fill(entries, null);
+        oldest = 0;
+        size = 0;
+
+        beginChange();
+        nextRemove(0, removed);
+        endChange();
+    }
+
+    /**
+     * @return The index of the entry, -1 if it is not in the ring. Entries arrive in the order of their sequence.
+     */
+    int find(Entry entry) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Entry candidate = entries[slot(mid)];
+            if (candidate.sequence < entry.sequence) {
+                low = mid + 1;
+            } else if (candidate.sequence > entry.sequence) {
+                high = mid - 1;
+            } else {
+                return candidate == entry ? size - 1 - mid : -1;
+            }
+        }
+        return -1;
+    }
+
+    private int slot(int position) {
+        int slot = oldest + position;
+        return slot < entries.length ? slot : slot - entries.length;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= entries.length) {
+            return;
+        }
+        Entry[] grown = new Entry[Math.max(capacity, entries.length * 2)];
+        for (int position = 0; position < size; position++) {
+            grown[position] = entries[slot(position)];
+        }
+        entries = grown;
+        oldest = 0;
+    }
+
+    static final class Entry {
+
+        final MessagePropertiesDTO message;
+        final long sequence;
+        // Bytes charged when adding the message, its payload size grows once it is decoded.
+        final long size;
+
+        Entry(MessagePropertiesDTO message, long sequence, long size) {
+            this.message = message;
+            this.sequence = sequence;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package org.correomqtt.gui.model;
+
+import javafx.collections.ObservableList;
+import org.correomqtt.business.model.MessageEvictionPolicy;
+import org.correomqtt.business.model.SettingsDTO;
+import org.correomqtt.business.utils.MessageIds;
+import org.correomqtt.gui.model.MessageRingBuffer.Entry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded store for the messages of one message list. Newest messages are at index 0, the oldest messages are evicted
+ * from the tail as soon as the count or byte budget is exceeded. Must only be used on the FX application thread.
+ * <p>
+ * Messages are kept in a {@link MessageRingBuffer}, so adding and evicting the oldest messages take constant time.
+ * They are indexed by their id, and every message gets an increasing sequence number when added. As the ring is ordered
+ * by it, the position of a message is found by binary search instead of comparing messages. Sequence and stored size
+ * are kept by the store, a message may be held by several stores at once.
+ * <p>
+ * Messages are not observed by the list, changes of a stored message are passed on with {@link #update}.
+ */
+public class MessageStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageStore.class);
+
+    // Rough heap cost of a message besides its payload (DTO, record, id).
+    private static final long MESSAGE_OVERHEAD_BYTES = 256;
+
+    private final MessageRingBuffer messages = new MessageRingBuffer();
+    private final Map<String, Deque<Entry>> entriesByTopic = new HashMap<>();
+    private final Map<Long, Entry> entriesById = new HashMap<>();
+    // Messages without an id, or with the id of another stored message, are only found by identity.
+    private final Map<MessagePropertiesDTO, Entry> entriesByIdentity = new IdentityHashMap<>();
+
+    private final int maxMessages;
+    private final long maxBytes;
+    private final MessageEvictionPolicy evictionPolicy;
+    private final int keepPerTopic;
+
+    private long storedBytes;
+    private long evictedMessages;
+    private long nextSequence;
+
+    public MessageStore(int maxMessages, long maxBytes, MessageEvictionPolicy evictionPolicy, int keepPerTopic) {
+        this.maxMessages = maxMessages;
+        this.maxBytes = maxBytes;
+        this.evictionPolicy = evictionPolicy == null ? MessageEvictionPolicy.DROP_OLDEST : evictionPolicy;
+        this.keepPerTopic = keepPerTopic;
+    }
+
+    public static MessageStore fromSettings(SettingsDTO settings) {
+        return new MessageStore(settings.getMessageStoreMaxMessages(),
+                settings.getMessageStoreMaxBytes(),
+                settings.getMessageStoreEvictionPolicy(),
+                settings.getMessageStoreKeepPerTopic());
+    }
+
+    /**
+     * @return Read-only view of the stored messages, newest first.
+     */
+    public ObservableList<MessagePropertiesDTO> getMessages() {
+        return messages;
+    }
+
+    public void add(MessagePropertiesDTO messageDTO) {
+        addAll(List.of(messageDTO));
+    }
+
+    /**
+     * @param batch Messages in order of arrival.
+     */
+    public void addAll(List<MessagePropertiesDTO> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<Entry> added = new ArrayList<>(batch.size());
+        batch.forEach(messageDTO -> added.add(register(messageDTO)));
+        messages.addNewest(added);
+        added.forEach(this::track);
+        evict();
+    }
+
+    /**
+     * @return The stored message with the given id, null if there is none.
+     */
+    public MessagePropertiesDTO get(long id) {
+        if (id == MessageIds.NONE) {
+            return null;
+        }
+        Entry entry = entriesById.get(id);
+        return entry == null ? null : entry.message;
+    }
+
+    /**
+     * Tells the views of the list that a stored message changed, e.g. its publish status.
+     *
+     * @return False if the message is not stored.
+     */
+    public boolean update(MessagePropertiesDTO messageDTO) {
+        int index = indexOf(messageDTO);
+        if (index < 0) {
+            return false;
+        }
+        messages.replaced(index);
+        return true;
+    }
+
+    public boolean remove(MessagePropertiesDTO messageDTO) {
+        Entry entry = getEntry(messageDTO);
+        int index = entry == null ? -1 : messages.find(entry);
+        if (index < 0) {
+            return false;
+        }
+        messages.removeAt(index);
+        untrack(entry);
+        return true;
+    }
+
+    public void clear() {
+        messages.removeAllEntries();
+        entriesByTopic.clear();
+        entriesById.clear();
+        entriesByIdentity.clear();
+        storedBytes = 0;
+    }
+
+    public int size() {
+        return messages.size();
+    }
+
+    public long getStoredBytes() {
+        return storedBytes;
+    }
+
+    public long getEvictedMessages() {
+        return evictedMessages;
+    }
+
+    private Entry register(MessagePropertiesDTO messageDTO) {
+        Entry entry = new Entry(messageDTO, nextSequence++, estimateSize(messageDTO));
+        long id = messageDTO.getId();
+        if (id == MessageIds.NONE || entriesById.putIfAbsent(id, entry) != null) {
+            entriesByIdentity.put(messageDTO, entry);
+        }
+        storedBytes += entry.size;
+        return entry;
+    }
+
+    private Entry getEntry(MessagePropertiesDTO messageDTO) {
+        Entry entry = messageDTO.getId() == MessageIds.NONE ? null : entriesById.get(messageDTO.getId());
+        return entry != null && entry.message == messageDTO ? entry : entriesByIdentity.get(messageDTO);
+    }
+
+    private int indexOf(MessagePropertiesDTO messageDTO) {
+        Entry entry = getEntry(messageDTO);
+        return entry == null ? -1 : messages.find(entry);
+    }
+
+    private void track(Entry entry) {
+        if (evictionPolicy != MessageEvictionPolicy.KEEP_LAST_PER_TOPIC || keepPerTopic <= 0) {
+            return;
+        }
+
+        Deque<Entry> topicEntries = entriesByTopic.computeIfAbsent(entry.message.getTopic(), t -> new ArrayDeque<>());
+        topicEntries.addFirst(entry);
+        while (topicEntries.size() > keepPerTopic) {
+            Entry oldest = topicEntries.pollLast();
+            int index = messages.find(oldest);
+            if (index >= 0) {
+                messages.removeAt(index);
+            }
+            forget(oldest);
+            evictedMessages++;
+        }
+    }
+
+    private void untrack(Entry entry) {
+        forget(entry);
+
+        Deque<Entry> topicEntries = entriesByTopic.get(entry.message.getTopic());
+        if (topicEntries == null) {
+            return;
+        }
+
+        // Mostly the oldest entry of the topic, which is the last one.
+        Iterator<Entry> iterator = topicEntries.descendingIterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() == entry) {
+                iterator.remove();
+                break;
+            }
+        }
+
+        if (topicEntries.isEmpty()) {
+            entriesByTopic.remove(entry.message.getTopic());
+        }
+    }
+
+    private void forget(Entry entry) {
+        storedBytes -= entry.size;
+        if (!entriesById.remove(entry.message.getId(), entry)) {
+            entriesByIdentity.remove(entry.message);
+        }
+    }
+
+    private void evict() {
+        int size = messages.size();
+        int evictCount = 0;
+
+        // The newest message is always kept, even if it exceeds the byte budget on its own.
+        while (size - evictCount > 1 && isOverBudget(size - evictCount)) {
+            untrack(messages.getOldest(evictCount));
+            evictCount++;
+        }
+
+        if (evictCount > 0) {
+            messages.removeOldest(evictCount);
+            evictedMessages += evictCount;
+
+            if (LOGGER.isTraceEnabled()) {
+                LOGGER.trace("Evicted {} messages from store ({} messages, {} bytes left)", evictCount, messages.size(), storedBytes);
+            }
+        }
+    }
+
+    private boolean isOverBudget(int count) {
+        return (maxMessages > 0 && count > maxMessages) || (maxBytes > 0 && storedBytes > maxBytes);
+    }
+
+    private static long estimateSize(MessagePropertiesDTO messageDTO) {
+        // Topics of received messages are shared through the TopicDictionary of the connection.
+        return MESSAGE_OVERHEAD_BYTES + messageDTO.getPayloadSize();
+    }
+}
@@ -1,10 +1,13 @@
 package org.correomqtt.gui.model;
 
+import org.correomqtt.business.model.IngestOverflowPolicy;
 import org.correomqtt.business.model.Qos;
 import javafx.beans.Observable;
 import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.LongProperty;
 import javafx.beans.property.Property;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
@@ -22,13 +25,19 @@ public class SubscriptionPropertiesDTO {
     private final Property<Qos> qosProperty;
     private final BooleanProperty filteredProperty;
     private final BooleanProperty hiddenProperty;
+    private final Property<IngestOverflowPolicy> overflowPolicyProperty;
+    private final LongProperty droppedMessagesProperty;
+    private final LongProperty conflatedMessagesProperty;
 
     public static Callback<SubscriptionPropertiesDTO, Observable[]> extractor() {
         return (SubscriptionPropertiesDTO m) -> new Observable[]{
                 m.topicProperty,
                 m.qosProperty,
                 m.filteredProperty,
-                m.hiddenProperty
+                m.hiddenProperty,
+                m.overflowPolicyProperty,
+                m.droppedMessagesProperty,
+                m.conflatedMessagesProperty
         };
     }
 
@@ -64,6 +73,30 @@ public class SubscriptionPropertiesDTO {
         this.filteredProperty.set(hidden);
     }
 
+    public IngestOverflowPolicy getOverflowPolicy() {
+        return overflowPolicyProperty.getValue();
+    }
+
+    public void setOverflowPolicy(IngestOverflowPolicy overflowPolicy) {
+        overflowPolicyProperty.setValue(overflowPolicy);
+    }
+
+    public long getDroppedMessages() {
+        return droppedMessagesProperty.get();
+    }
+
+    public void setDroppedMessages(long droppedMessages) {
+        droppedMessagesProperty.set(droppedMessages);
+    }
+
+    public long getConflatedMessages() {
+        return conflatedMessagesProperty.get();
+    }
+
+    public void setConflatedMessages(long conflatedMessages) {
+        conflatedMessagesProperty.set(conflatedMessages);
+    }
+
     @Override
     public int hashCode() {
         return topicProperty.hashCode() + qosProperty.hashCode() + filteredProperty.hashCode() + hiddenProperty.hashCode();
@@ -89,6 +122,9 @@ public class SubscriptionPropertiesDTO {
         private Property<Qos> qosProperty = new SimpleObjectProperty<>();
         private BooleanProperty filteredProperty = new SimpleBooleanProperty(true);
         private BooleanProperty hiddenProperty = new SimpleBooleanProperty(false);
+        private Property<IngestOverflowPolicy> overflowPolicyProperty = new SimpleObjectProperty<>();
+        private LongProperty droppedMessagesProperty = new SimpleLongProperty();
+        private LongProperty conflatedMessagesProperty = new SimpleLongProperty();
 
         public SubscriptionPropertiesDTOBuilder topic(String topic) {
             this.topicProperty.set(topic);
@@ -110,11 +146,19 @@ public class SubscriptionPropertiesDTO {
             return this;
         }
 
+        public SubscriptionPropertiesDTOBuilder overflowPolicy(IngestOverflowPolicy overflowPolicy) {
+            this.overflowPolicyProperty.setValue(overflowPolicy);
+            return this;
+        }
+
         public SubscriptionPropertiesDTO build() {
             return new SubscriptionPropertiesDTO(topicProperty,
                                                  qosProperty,
                                                  filteredProperty,
-                                                 hiddenProperty);
+                                                 hiddenProperty,
+                                                 overflowPolicyProperty,
+                                                 droppedMessagesProperty,
+                                                 conflatedMessagesProperty);
         }
     }
 
@@ -29,6 +29,8 @@ public class ConnectionTransformer {
                 .username(dto.getUsername())
                 .password(dto.getPassword())
                 .cleanSession(dto.isCleanSession())
+                .manualAcknowledgement(dto.isManualAcknowledgement())
+                .receiveMaximum(dto.getReceiveMaximum())
                 .mqttVersion(dto.getMqttVersion())
                 .ssl(dto.getSsl())
                 .sslKeystore(dto.getSslKeystore())
@@ -68,6 +70,8 @@ public class ConnectionTransformer {
                 .username(props.getUsername())
                 .password(props.getPassword())
                 .cleanSession(props.isCleanSession())
+                .manualAcknowledgement(props.isManualAcknowledgement())
+                .receiveMaximum(props.getReceiveMaximum())
                 .mqttVersion(props.getMqttVersion())
                 .ssl(props.getSsl())
                 .sslKeystore(props.getSslKeystore())
@@ -2,6 +2,7 @@ package org.correomqtt.gui.transformer;
 
 import org.correomqtt.business.model.MessageDTO;
 import org.correomqtt.gui.model.MessagePropertiesDTO;
+import org.correomqtt.gui.model.SubscriptionPropertiesDTO;
 
 public class MessageTransformer {
 
@@ -10,13 +11,20 @@ public class MessageTransformer {
     }
 
     public static MessagePropertiesDTO dtoToProps(MessageDTO messageDTO) {
+        return dtoToProps(messageDTO, null);
+    }
+
+    public static MessagePropertiesDTO dtoToProps(MessageDTO messageDTO, SubscriptionPropertiesDTO subscriptionPropertiesDTO) {
         return MessagePropertiesDTO.builder()
                 .topic(messageDTO.getTopic())
-                .payload(messageDTO.getPayload())
+                .topicId(messageDTO.getTopicId())
+                .payload(messageDTO.getPayloadBuffer() == null ? messageDTO.getPayload() : null)
+                .payloadBuffer(messageDTO.getPayloadBuffer())
                 .isRetained(messageDTO.isRetained())
                 .qos(messageDTO.getQos())
                 .dateTime(messageDTO.getDateTime())
-                .messageId(messageDTO.getMessageId())
+                .subscription(subscriptionPropertiesDTO)
+                .id(messageDTO.getId())
                 .messageType(messageDTO.getMessageType())
                 .publishStatus(messageDTO.getPublishStatus())
                 .build();
@@ -25,11 +33,13 @@ public class MessageTransformer {
     public static MessageDTO propsToDTO(MessagePropertiesDTO messagePropertiesDTO) {
         return MessageDTO.builder()
                 .topic(messagePropertiesDTO.getTopic())
-                .payload(messagePropertiesDTO.getPayload())
+                .topicId(messagePropertiesDTO.getTopicId())
+                .payload(messagePropertiesDTO.getPayloadBuffer() == null ? messagePropertiesDTO.getPayload() : null)
+                .payloadBuffer(messagePropertiesDTO.getPayloadBuffer())
                 .isRetained(messagePropertiesDTO.isRetained())
                 .qos(messagePropertiesDTO.getQos())
                 .dateTime(messagePropertiesDTO.getDateTime())
-                .messageId(messagePropertiesDTO.getMessageId())
+                .id(messagePropertiesDTO.getId())
                 .messageType(messagePropertiesDTO.getMessageType())
                 .publishStatus(messagePropertiesDTO.getPublishStatus())
                 .build();
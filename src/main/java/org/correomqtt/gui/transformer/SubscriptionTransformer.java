@@ -14,6 +14,7 @@ public class SubscriptionTransformer {
                               .topic(props.getTopic())
                               .qos(props.getQos())
                               .hidden(props.isHidden())
+                              .overflowPolicy(props.getOverflowPolicy())
                               .build();
     }
 
@@ -22,6 +23,7 @@ public class SubscriptionTransformer {
                                         .topic(dto.getTopic())
                                         .qos(dto.getQos())
                                         .hidden((dto.isHidden()))
+                                        .overflowPolicy(dto.getOverflowPolicy())
                                         .build();
     }
 }
@@ -0,0 +1,223 @@
+package org.correomqtt.plugin.manager;
+
+import org.correomqtt.plugin.model.MessageExtensionDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, already configured sequence of hooks of one type. Chains are resolved once by the {@link PluginManager}
+ * and replaced when plugins or the hooks file change, executing a chain neither looks up nor configures extensions.
+ * Configured hooks are instances of their own, configuring the same extension elsewhere does not affect the chain.
+ * <p>
+ * A hook that fails, times out or can not be scheduled is bypassed, the message continues as it was before that hook.
+ * Hooks exceeding their latency budget too often in a row are disabled. Chains that must not skip a hook, like the
+ * outgoing one, use {@link #executeRequired(MessageExtensionDTO, HookInvocation)} instead.
+ */
+public class HookChain<H> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HookChain.class);
+
+    private static final int MAX_CONSECUTIVE_OVERRUNS = 5;
+
+    private final List<Link<H>> links;
+
+    HookChain(List<Link<H>> links) {
+        this.links = Collections.unmodifiableList(links);
+    }
+
+    public boolean isEmpty() {
+        return links.isEmpty();
+    }
+
+    /**
+     * Runs every hook on the {@link HookExecutor} and waits for it, so must be called from a {@link HookExecutor.Lane}.
+     * For hooks that change what is sent, e.g. by signing or encrypting it: no hook is bypassed or disabled, the first
+     * one that fails, times out or can not be scheduled fails the whole chain.
+     *
+     * @throws HookFailedException If a hook did not process the message.
+     */
+    public MessageExtensionDTO executeRequired(MessageExtensionDTO message, HookInvocation<H> invocation) throws HookFailedException {
+        for (Link<H> link : links) {
+            MessageExtensionDTO input = message;
+            long start = System.nanoTime();
+            try {
+                MessageExtensionDTO result = HookExecutor.getInstance().invoke(() -> invocation.invoke(link.hook, input),
+                        link.timeoutNanos);
+                if (result != null) {
+                    message = result;
+                }
+            } catch (TimeoutException e) {
+                link.statistics.recordTimeout();
+                throw new HookFailedException(link.statistics, "did not finish within " + link.timeoutNanos / 1_000_000 + " ms", e);
+            } catch (ExecutionException e) {
+                link.statistics.recordFailure();
+                throw new HookFailedException(link.statistics, "failed", e.getCause());
+            } catch (RejectedExecutionException e) {
+                link.statistics.recordFailure();
+                throw new HookFailedException(link.statistics, "could not be scheduled", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new HookFailedException(link.statistics, "was interrupted", e);
+            } finally {
+                link.statistics.record(System.nanoTime() - start);
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Runs every hook on the {@link HookExecutor} and waits for it, so must be called from a {@link HookExecutor.Lane}.
+     * Hooks get one invocation for the whole batch, failing hooks are bypassed. Timeout and budget of a hook scale with
+     * the batch size. All hooks work on the same messages, which may be changed in place, so callers pass messages of
+     * their own.
+     *
+     * @param batchInvocation Processes the batch in one call, or returns null if the hook only supports single
+     *                        messages. These are then passed one by one to the invocation.
+     */
+    public List<MessageExtensionDTO> executeBatch(List<MessageExtensionDTO> messages, HookInvocation<H> invocation,
+                                                  BatchHookInvocation<H> batchInvocation) {
+        for (Link<H> link : links) {
+            if (link.statistics.isDisabled()) {
+                continue;
+            }
+
+            List<MessageExtensionDTO> input = messages;
+            long start = System.nanoTime();
+            try {
+                List<MessageExtensionDTO> result = HookExecutor.getInstance().invoke(() -> invoke(link.hook, input, invocation, batchInvocation),
+                        saturatedMultiply(link.timeoutNanos, messages.size()));
+                if (result.size() == messages.size()) {
+                    messages = result;
+                } else {
+                    link.statistics.recordFailure();
+                    LOGGER.warn("Plugin hook {}:{} returned {} messages for {}, bypassing it.", link.statistics.getPluginId(),
+                            link.statistics.getExtensionId(), result.size(), messages.size());
+                }
+            } catch (TimeoutException e) {
+                // The hook may still be changing the messages it got, the following hooks work on a copy.
+                messages = copy(messages);
+                link.statistics.recordTimeout();
+                LOGGER.warn("Plugin hook {}:{} did not finish within {} ms, bypassing it.", link.statistics.getPluginId(),
+                        link.statistics.getExtensionId(), link.timeoutNanos / 1_000_000);
+            } catch (ExecutionException e) {
+                link.statistics.recordFailure();
+                LOGGER.warn("Plugin hook {}:{} failed, bypassing it.", link.statistics.getPluginId(),
+                        link.statistics.getExtensionId(), e.getCause());
+            } catch (RejectedExecutionException e) {
+                link.statistics.recordFailure();
+                LOGGER.debug("Plugin hook {}:{} rejected, bypassing it.", link.statistics.getPluginId(),
+                        link.statistics.getExtensionId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return messages;
+            } finally {
+                record(link, System.nanoTime() - start, messages.size());
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Runs every hook on the calling thread, for hooks working on the UI. They can not be timed out, but are disabled
+     * once they exceed their budget too often.
+     */
+    public void executeInline(Consumer<H> invocation) {
+        for (Link<H> link : links) {
+            if (link.statistics.isDisabled()) {
+                continue;
+            }
+
+            long start = System.nanoTime();
+            try {
+                invocation.accept(link.hook);
+            } catch (RuntimeException e) {
+                link.statistics.recordFailure();
+                LOGGER.warn("Plugin hook {}:{} failed.", link.statistics.getPluginId(), link.statistics.getExtensionId(), e);
+            } finally {
+                record(link, System.nanoTime() - start, 1);
+            }
+        }
+    }
+
+    public List<H> getHooks() {
+        return links.stream().map(link -> link.hook).collect(Collectors.toList());
+    }
+
+    public List<HookStatistics> getStatistics() {
+        return links.stream().map(link -> link.statistics).collect(Collectors.toList());
+    }
+
+    private static <H> List<MessageExtensionDTO> invoke(H hook, List<MessageExtensionDTO> messages, HookInvocation<H> invocation,
+                                                        BatchHookInvocation<H> batchInvocation) {
+        List<MessageExtensionDTO> result = batchInvocation.invoke(hook, messages);
+        if (result != null) {
+            return result;
+        }
+
+        result = new ArrayList<>(messages.size());
+        for (MessageExtensionDTO message : messages) {
+            MessageExtensionDTO processed = invocation.invoke(hook, message);
+            result.add(processed == null ? message : processed);
+        }
+        return result;
+    }
+
+    private static List<MessageExtensionDTO> copy(List<MessageExtensionDTO> messages) {
+        return messages.stream().map(MessageExtensionDTO::new).collect(Collectors.toList());
+    }
+
+    private static long saturatedMultiply(long value, int factor) {
+        return value > Long.MAX_VALUE / factor ? Long.MAX_VALUE : value * factor;
+    }
+
+    // Latency is recorded and compared to the budget per message.
+    private static void record(Link<?> link, long nanos, int messages) {
+        HookStatistics statistics = link.statistics;
+        long nanosPerMessage = nanos / messages;
+        statistics.record(nanosPerMessage, messages);
+        if (nanosPerMessage <= link.budgetNanos) {
+            statistics.recordWithinBudget();
+        } else if (statistics.recordOverrun() >= MAX_CONSECUTIVE_OVERRUNS && !statistics.isDisabled()) {
+            statistics.disable();
+            LOGGER.warn("Plugin hook {}:{} exceeded its budget of {} ms {} times in a row and was disabled.",
+                    statistics.getPluginId(), statistics.getExtensionId(), link.budgetNanos / 1_000_000,
+                    MAX_CONSECUTIVE_OVERRUNS);
+        }
+    }
+
+    @FunctionalInterface
+    public interface HookInvocation<H> {
+
+        MessageExtensionDTO invoke(H hook, MessageExtensionDTO message);
+    }
+
+    @FunctionalInterface
+    public interface BatchHookInvocation<H> {
+
+        List<MessageExtensionDTO> invoke(H hook, List<MessageExtensionDTO> messages);
+    }
+
+    static class Link<H> {
+
+        private final H hook;
+        private final HookStatistics statistics;
+        private final long timeoutNanos;
+        private final long budgetNanos;
+
+        Link(H hook, HookStatistics statistics, long timeoutNanos, long budgetNanos) {
+            this.hook = hook;
+            this.statistics = statistics;
+            this.timeoutNanos = timeoutNanos;
+            this.budgetNanos = budgetNanos;
+        }
+    }
+}
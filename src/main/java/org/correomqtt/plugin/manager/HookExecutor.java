@@ -0,0 +1,131 @@
+package org.correomqtt.plugin.manager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs plugin message hooks away from the network and FX threads. Hook chains are executed in lanes, each lane runs
+ * its tasks one after another so messages keep their order. Every single hook invocation runs on a separate bounded
+ * pool, so the lane can give up on a hook once its timeout passed.
+ */
+public class HookExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HookExecutor.class);
+
+    private static final int POOL_SIZE = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final int HOOK_QUEUE_CAPACITY = 256;
+    private static final int LANE_CAPACITY = 10_000;
+    private static final int LANE_TASKS_PER_TURN = 64;
+
+    private static HookExecutor instance;
+
+    private final ThreadPoolExecutor lanePool;
+    private final ThreadPoolExecutor hookPool;
+
+    private HookExecutor() {
+        // The lane pool queue holds at most one entry per lane.
+        lanePool = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory("correo-plugin-lane-"));
+        lanePool.allowCoreThreadTimeOut(true);
+        hookPool = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(HOOK_QUEUE_CAPACITY), threadFactory("correo-plugin-hook-"));
+        hookPool.allowCoreThreadTimeOut(true);
+    }
+
+    public static synchronized HookExecutor getInstance() {
+        if (instance == null) {
+            instance = new HookExecutor();
+        }
+        return instance;
+    }
+
+    public Lane newLane() {
+        return new Lane();
+    }
+
+    /**
+     * Runs the call on the hook pool and waits for at most the given time.
+     *
+     * @throws TimeoutException                                If the call did not finish in time, it gets interrupted.
+     * @throws java.util.concurrent.RejectedExecutionException If the hook pool is saturated.
+     */
+    <T> T invoke(Callable<T> call, long timeoutNanos) throws TimeoutException, ExecutionException, InterruptedException {
+        Future<T> future = hookPool.submit(call);
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Runs its tasks in order on the shared lane pool. A lane gives up its thread after some tasks, so a busy lane can
+     * not starve the others.
+     */
+    public class Lane {
+
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private boolean scheduled;
+
+        private Lane() {
+            // created by the executor
+        }
+
+        /**
+         * @return False if the lane is full and the task was not accepted.
+         */
+        public synchronized boolean offer(Runnable task) {
+            if (tasks.size() >= LANE_CAPACITY) {
+                return false;
+            }
+            tasks.add(task);
+            if (!scheduled) {
+                scheduled = true;
+                lanePool.execute(this::runTasks);
+            }
+            return true;
+        }
+
+        private void runTasks() {
+            for (int i = 0; i < LANE_TASKS_PER_TURN; i++) {
+                Runnable task;
+                synchronized (this) {
+                    task = tasks.poll();
+                    if (task == null) {
+                        scheduled = false;
+                        return;
+                    }
+                }
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    LOGGER.error("Exception in plugin hook lane", e);
+                }
+            }
+            lanePool.execute(this::runTasks);
+        }
+    }
+}
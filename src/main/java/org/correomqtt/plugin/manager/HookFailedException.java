@@ -0,0 +1,15 @@
+package org.correomqtt.plugin.manager;
+
+/**
+ * A hook of a chain executed with {@link HookChain#executeRequired} did not process the message.
+ */
+public class HookFailedException extends Exception {
+
+    HookFailedException(HookStatistics statistics, String reason, Throwable cause) {
+        super("Plugin hook " + statistics.getPluginId() + ":" + statistics.getExtensionId() + " " + reason + ".", cause);
+    }
+
+    public HookFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,148 @@
+package org.correomqtt.plugin.manager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Invocation counter and latency histogram of one hook. Buckets grow in powers of two starting at one microsecond,
+ * recording is lock free and cheap enough to run on every message.
+ * <p>
+ * Also tracks how often the hook exceeded its latency budget. A hook exceeding it too many times in a row is disabled
+ * until the hook chains are rebuilt.
+ */
+public class HookStatistics {
+
+    private static final int BUCKET_COUNT = 24;
+    private static final long FIRST_BUCKET_NANOS = 1_000;
+
+    private final String hookType;
+    private final String pluginId;
+    private final String extensionId;
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder overruns = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicInteger consecutiveOverruns = new AtomicInteger();
+    private volatile boolean disabled;
+
+    public HookStatistics(String hookType, String pluginId, String extensionId) {
+        this.hookType = hookType;
+        this.pluginId = pluginId;
+        this.extensionId = extensionId;
+    }
+
+    public void record(long nanos) {
+        record(nanos, 1);
+    }
+
+    /**
+     * Records the same latency for several messages, e.g. the average of a batch.
+     */
+    public void record(long nanos, int count) {
+        invocations.add(count);
+        totalNanos.add(nanos * count);
+        buckets.addAndGet(bucket(nanos), count);
+    }
+
+    /**
+     * @return The number of budget overruns in a row, including this one.
+     */
+    int recordOverrun() {
+        overruns.increment();
+        return consecutiveOverruns.incrementAndGet();
+    }
+
+    void recordWithinBudget() {
+        consecutiveOverruns.set(0);
+    }
+
+    void recordTimeout() {
+        timeouts.increment();
+    }
+
+    void recordFailure() {
+        failures.increment();
+    }
+
+    void disable() {
+        disabled = true;
+    }
+
+    public String getHookType() {
+        return hookType;
+    }
+
+    public String getPluginId() {
+        return pluginId;
+    }
+
+    public String getExtensionId() {
+        return extensionId;
+    }
+
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    public long getOverruns() {
+        return overruns.sum();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public boolean isDisabled() {
+        return disabled;
+    }
+
+    public long getAverageNanos() {
+        long count = invocations.sum();
+        return count == 0 ? 0 : totalNanos.sum() / count;
+    }
+
+    /**
+     * @param percentile Between 0 and 1.
+     * @return Upper bound of the bucket containing the percentile, 0 if nothing was recorded yet.
+     */
+    public long getPercentileNanos(double percentile) {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKET_COUNT - 1);
+    }
+
+    private static int bucket(long nanos) {
+        if (nanos < FIRST_BUCKET_NANOS) {
+            return 0;
+        }
+        int bucket = 64 - Long.numberOfLeadingZeros(nanos / FIRST_BUCKET_NANOS);
+        return Math.min(bucket, BUCKET_COUNT - 1);
+    }
+
+    private static long upperBound(int bucket) {
+        return FIRST_BUCKET_NANOS << bucket;
+    }
+}
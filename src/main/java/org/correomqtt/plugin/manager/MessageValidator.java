@@ -1,18 +1,58 @@
 package org.correomqtt.plugin.manager;
 
+import org.correomqtt.business.model.HooksDTO;
+import org.correomqtt.business.provider.PluginConfigProvider;
+import org.correomqtt.business.topic.TopicTrie;
+import org.correomqtt.gui.model.MessagePropertiesDTO;
 import org.correomqtt.plugin.spi.MessageValidatorHook;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Validates messages with the validators configured for their topic. The configured validators are resolved once
+ * into a registry keyed by topic filter and rebuilt after {@link #invalidate()}, validations of a message are cached
+ * until then. Every definition has configured validator instances of its own.
+ */
 public class MessageValidator {
 
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    private static volatile Registry registry;
+
     private MessageValidator(){
         // private constructor
     }
 
     public static MessageValidatorHook.Validation validateMessage(String topic, String payload) {
-        List<MessageValidatorHook<?>> validators = PluginManager.getInstance().getMessageValidators(topic);
+        return validate(getRegistry().getValidators(topic), payload);
+    }
+
+    public static MessageValidatorHook.Validation validateMessage(MessagePropertiesDTO messageDTO) {
+        Registry currentRegistry = getRegistry();
+        if (messageDTO.hasValidation(currentRegistry.version)) {
+            return messageDTO.getValidation();
+        }
+
+        List<MessageValidatorHook<?>> validators = currentRegistry.getValidators(messageDTO.getTopic());
+        MessageValidatorHook.Validation validation = validators.isEmpty()
+                ? null
+                : validate(validators, messageDTO.getPayloadUncached());
+        messageDTO.setValidation(currentRegistry.version, validation);
+        return validation;
+    }
+
+    /**
+     * Drops the resolved validators and all cached validations, e.g. after plugins were started or stopped or the
+     * hooks file was reloaded.
+     */
+    public static void invalidate() {
+        registry = null;
+    }
 
+    private static MessageValidatorHook.Validation validate(List<MessageValidatorHook<?>> validators, String payload) {
         MessageValidatorHook.Validation validation = null;
         for (MessageValidatorHook<?> validator : validators) {
             validation = validator.isMessageValid(payload);
@@ -20,4 +60,68 @@ public class MessageValidator {
         }
         return validation;
     }
+
+    private static Registry getRegistry() {
+        Registry currentRegistry = registry;
+        if (currentRegistry == null) {
+            synchronized (MessageValidator.class) {
+                currentRegistry = registry;
+                if (currentRegistry == null) {
+                    currentRegistry = new Registry(VERSION.incrementAndGet());
+                    registry = currentRegistry;
+                }
+            }
+        }
+        return currentRegistry;
+    }
+
+    private static class Registry {
+
+        private final long version;
+        private final TopicTrie<Definition> definitions = new TopicTrie<>();
+
+        private Registry(long version) {
+            this.version = version;
+
+            List<HooksDTO.MessageValidator> validatorDefinitions = PluginConfigProvider.getInstance().getMessageValidators();
+            if (validatorDefinitions == null) {
+                return;
+            }
+
+            PluginManager pluginManager = PluginManager.getInstance();
+            for (int i = 0; i < validatorDefinitions.size(); i++) {
+                HooksDTO.MessageValidator validatorDefinition = validatorDefinitions.get(i);
+                if (validatorDefinition.getTopic() == null || validatorDefinition.getExtensions() == null) {
+                    continue;
+                }
+                int order = i;
+                definitions.computeIfAbsent(validatorDefinition.getTopic(), topic -> new Definition(order))
+                        .validators.addAll(pluginManager.getMessageValidators(validatorDefinition));
+            }
+        }
+
+        private List<MessageValidatorHook<?>> getValidators(String topic) {
+            List<Definition> matches = new ArrayList<>();
+            definitions.forEachMatch(topic, matches::add);
+            if (matches.size() == 1) {
+                return matches.get(0).validators;
+            }
+
+            // Keep the configured order if exact and wildcard definitions match together.
+            matches.sort(Comparator.comparingInt(definition -> definition.order));
+            List<MessageValidatorHook<?>> validators = new ArrayList<>();
+            matches.forEach(definition -> validators.addAll(definition.validators));
+            return validators;
+        }
+    }
+
+    private static class Definition {
+
+        private final int order;
+        private final List<MessageValidatorHook<?>> validators = new ArrayList<>();
+
+        private Definition(int order) {
+            this.order = order;
+        }
+    }
 }
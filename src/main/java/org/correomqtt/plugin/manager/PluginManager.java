@@ -6,12 +6,17 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.correomqtt.business.model.HooksDTO;
 import org.correomqtt.business.provider.PluginConfigProvider;
+import org.correomqtt.gui.formats.LegacyFormatAdapter;
+import org.correomqtt.gui.formats.PayloadFormat;
 import org.correomqtt.plugin.spi.BaseExtensionPoint;
+import org.correomqtt.plugin.spi.DetailViewFormatHook;
 import org.correomqtt.plugin.spi.DetailViewManipulatorHook;
 import org.correomqtt.plugin.spi.ExtensionId;
 import org.correomqtt.plugin.spi.IncomingMessageHook;
+import org.correomqtt.plugin.spi.MessageListHook;
 import org.correomqtt.plugin.spi.MessageValidatorHook;
 import org.correomqtt.plugin.spi.OutgoingMessageHook;
+import org.correomqtt.plugin.spi.PayloadFormatHook;
 import org.pf4j.ExtensionFactory;
 import org.pf4j.JarPluginManager;
 import org.pf4j.ManifestPluginDescriptorFinder;
@@ -25,21 +30,35 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.ParameterizedType;
 import java.nio.file.Path;
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class PluginManager extends JarPluginManager {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PluginManager.class);
 
+    private static final long DEFAULT_HOOK_TIMEOUT_MILLIS = 1000;
+    private static final long DEFAULT_HOOK_BUDGET_MILLIS = 50;
+    // Message list hooks run on the FX thread for every visible cell.
+    private static final long MESSAGE_LIST_HOOK_BUDGET_MILLIS = 2;
+
     private static PluginManager instance;
 
+    private volatile HookChain<OutgoingMessageHook> outgoingMessageHookChain;
+    private volatile HookChain<IncomingMessageHook> incomingMessageHookChain;
+    private volatile HookChain<MessageListHook> messageListHookChain;
+    private volatile List<PayloadFormat> payloadFormats;
+
     private PluginManager() {
         // private constructor
         super(Path.of(PluginConfigProvider.getInstance().getPluginPath()));
+        addPluginStateListener(event -> resetResolvedExtensions());
+        PluginConfigProvider.getInstance().addHooksChangedListener(this::resetResolvedExtensions);
     }
 
     @Override
@@ -76,30 +95,131 @@ public class PluginManager extends JarPluginManager {
         instance = new PluginManager();
     }
 
-    public List<OutgoingMessageHook> getOutgoingMessageHooks() {
-        return PluginConfigProvider.getInstance().getOutgoingMessageHooks()
-                .stream()
+    public HookChain<OutgoingMessageHook> getOutgoingMessageHookChain() {
+        HookChain<OutgoingMessageHook> chain = outgoingMessageHookChain;
+        if (chain == null) {
+            chain = createHookChain(OutgoingMessageHook.class, PluginConfigProvider.getInstance().getOutgoingMessageHooks());
+            outgoingMessageHookChain = chain;
+        }
+        return chain;
+    }
+
+    public HookChain<IncomingMessageHook> getIncomingMessageHookChain() {
+        HookChain<IncomingMessageHook> chain = incomingMessageHookChain;
+        if (chain == null) {
+            chain = discoverHookChain(IncomingMessageHook.class, PluginConfigProvider.getInstance().getIncomingMessageHooks());
+            incomingMessageHookChain = chain;
+        }
+        return chain;
+    }
+
+    public HookChain<MessageListHook> getMessageListHookChain() {
+        HookChain<MessageListHook> chain = messageListHookChain;
+        if (chain == null) {
+            chain = new HookChain<>(getExtensions(MessageListHook.class).stream()
+                    .map(extension -> {
+                        HookStatistics statistics = new HookStatistics(MessageListHook.class.getSimpleName(),
+                                getPluginIdOf(extension), getExtensionIdOf(extension));
+                        return new HookChain.Link<>(extension, statistics, Long.MAX_VALUE,
+                                TimeUnit.MILLISECONDS.toNanos(MESSAGE_LIST_HOOK_BUDGET_MILLIS));
+                    })
+                    .collect(Collectors.toList()));
+            messageListHookChain = chain;
+        }
+        return chain;
+    }
+
+    /**
+     * @return Formats of all plugins in detection order, legacy {@link DetailViewFormatHook}s last. Shared instances,
+     * created once per plugin state.
+     */
+    public List<PayloadFormat> getPayloadFormats() {
+        List<PayloadFormat> formats = payloadFormats;
+        if (formats == null) {
+            List<PayloadFormat> found = new ArrayList<>(getExtensions(PayloadFormatHook.class));
+            getExtensions(DetailViewFormatHook.class).forEach(hook -> found.add(new LegacyFormatAdapter(hook)));
+            formats = List.copyOf(found);
+            payloadFormats = formats;
+        }
+        return formats;
+    }
+
+    /**
+     * @return Statistics of all hooks that were used since plugins last changed.
+     */
+    public List<HookStatistics> getHookStatistics() {
+        List<HookStatistics> statistics = new ArrayList<>();
+        Stream.of(incomingMessageHookChain, outgoingMessageHookChain, messageListHookChain)
+                .filter(Objects::nonNull)
+                .forEach(chain -> statistics.addAll(chain.getStatistics()));
+        return statistics;
+    }
+
+    private <H extends BaseExtensionPoint<Object>> HookChain<H> createHookChain(Class<H> type, List<HooksDTO.Extension> extensionDefinitions) {
+        if (extensionDefinitions == null) {
+            return new HookChain<>(List.of());
+        }
+        return new HookChain<>(extensionDefinitions.stream()
                 .map(extensionDefinition -> {
-                    OutgoingMessageHook extension = getExtensionById(OutgoingMessageHook.class,
-                            extensionDefinition.getPluginId(),
-                            extensionDefinition.getId());
-                    enrichExtensionWithConfig(extension, extensionDefinition.getConfig());
-                    return extension;
+                    String pluginId = extensionDefinition.getPluginId();
+                    String extensionId = extensionDefinition.getId();
+                    H extension = getExtensionById(type, pluginId, extensionId);
+                    if (extension == null) {
+                        LOGGER.warn("Plugin extension {}:{} for {} is configured, but does not exist.", pluginId, extensionId, type.getSimpleName());
+                        return null;
+                    }
+                    return createLink(type, createConfiguredExtension(extension, extensionDefinition.getConfig()),
+                            pluginId, extensionId, extensionDefinition);
                 })
-                .collect(Collectors.toList());
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
     }
 
-    public List<IncomingMessageHook> getIncomingMessageHooks() {
-        return PluginConfigProvider.getInstance().getIncomingMessageHooks()
-                .stream()
-                .map(extensionDefinition -> {
-                    IncomingMessageHook extension = getExtensionById(IncomingMessageHook.class,
-                            extensionDefinition.getPluginId(),
-                            extensionDefinition.getId());
-                    enrichExtensionWithConfig(extension, extensionDefinition.getConfig());
-                    return extension;
+    // Every loaded extension runs, a matching entry in hooks.json only adds its config and limits.
+    private <H extends BaseExtensionPoint<Object>> HookChain<H> discoverHookChain(Class<H> type, List<HooksDTO.Extension> extensionDefinitions) {
+        List<HooksDTO.Extension> definitions = extensionDefinitions == null ? List.of() : extensionDefinitions;
+        return new HookChain<>(getExtensions(type).stream()
+                .map(extension -> {
+                    String pluginId = getPluginIdOf(extension);
+                    HooksDTO.Extension extensionDefinition = definitions.stream()
+                            .filter(definition -> Objects.equals(definition.getPluginId(), pluginId)
+                                    && isExtensionIdResolved(extension, definition.getId()))
+                            .findFirst()
+                            .orElse(null);
+                    H configured = extensionDefinition == null
+                            ? extension
+                            : createConfiguredExtension(extension, extensionDefinition.getConfig());
+                    return createLink(type, configured, pluginId, getExtensionIdOf(extension), extensionDefinition);
                 })
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    private <H> HookChain.Link<H> createLink(Class<H> type, H extension, String pluginId, String extensionId,
+                                             HooksDTO.Extension extensionDefinition) {
+        Optional<HooksDTO.Extension> definition = Optional.ofNullable(extensionDefinition);
+        long timeoutMillis = definition.map(HooksDTO.Extension::getTimeoutMillis).orElse(DEFAULT_HOOK_TIMEOUT_MILLIS);
+        long budgetMillis = definition.map(HooksDTO.Extension::getBudgetMillis).orElse(DEFAULT_HOOK_BUDGET_MILLIS);
+        return new HookChain.Link<>(extension, new HookStatistics(type.getSimpleName(), pluginId, extensionId),
+                TimeUnit.MILLISECONDS.toNanos(timeoutMillis), TimeUnit.MILLISECONDS.toNanos(budgetMillis));
+    }
+
+    private String getPluginIdOf(Object extension) {
+        PluginWrapper pluginWrapper = whichPlugin(extension.getClass());
+        return pluginWrapper == null ? null : pluginWrapper.getPluginId();
+    }
+
+    private static String getExtensionIdOf(Object extension) {
+        ExtensionId extensionId = extension.getClass().getAnnotation(ExtensionId.class);
+        return extensionId == null ? extension.getClass().getSimpleName() : extensionId.value();
+    }
+
+    // Chains and validators are resolved again from the current plugins and hooks file when used next.
+    private void resetResolvedExtensions() {
+        outgoingMessageHookChain = null;
+        incomingMessageHookChain = null;
+        messageListHookChain = null;
+        payloadFormats = null;
+        MessageValidator.invalidate();
     }
 
     public List<DetailViewManipulatorTask> getDetailViewManipulatorTasks() {
@@ -115,8 +235,7 @@ public class PluginManager extends JarPluginManager {
                                     LOGGER.warn("Plugin extension {}:{} in detailViewTasks is configured, but does not exist.", pluginId, extensionId);
                                     return null;
                                 }
-                                enrichExtensionWithConfig(extension, extensionDefinition.getConfig());
-                                return extension;
+                                return createConfiguredExtension(extension, extensionDefinition.getConfig());
                             })
                             .filter(Objects::nonNull)
                             .collect(Collectors.toList());
@@ -129,26 +248,40 @@ public class PluginManager extends JarPluginManager {
                 .collect(Collectors.toList());
     }
 
-    public List<MessageValidatorHook<?>> getMessageValidators(String topic) {
-        return PluginConfigProvider.getInstance().getMessageValidators()
-                .stream()
-                .filter(validatorDefinition -> validatorDefinition.getTopic().equals(topic))
-                .map(validatorDefinition -> validatorDefinition.getExtensions().stream()
-                        .map(extensionDefinition -> {
-                            String pluginId = extensionDefinition.getPluginId();
-                            String extensionId = extensionDefinition.getId();
-                            MessageValidatorHook<?> extension = getExtensionById(MessageValidatorHook.class, pluginId, extensionId);
-                            if (extension == null) {
-                                LOGGER.warn("Plugin extension {}:{} in messageValidators is configured, but does not exist.", pluginId, extensionId);
-                                return null;
-                            }
-                            enrichExtensionWithConfig(extension, extensionDefinition.getConfig());
-                            return extension;
-                        }).collect(Collectors.toList()))
-                .flatMap(Collection::stream)
+    public List<MessageValidatorHook<?>> getMessageValidators(HooksDTO.MessageValidator validatorDefinition) {
+        return validatorDefinition.getExtensions().stream()
+                .map(extensionDefinition -> {
+                    String pluginId = extensionDefinition.getPluginId();
+                    String extensionId = extensionDefinition.getId();
+                    MessageValidatorHook<?> extension = getExtensionById(MessageValidatorHook.class, pluginId, extensionId);
+                    if (extension == null) {
+                        LOGGER.warn("Plugin extension {}:{} in messageValidators is configured, but does not exist.", pluginId, extensionId);
+                        return null;
+                    }
+                    return createConfiguredExtension(extension, extensionDefinition.getConfig());
+                })
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * pf4j shares one instance per extension, but an extension may be configured several times with different configs.
+     * Extensions with a config get an instance of their own, which is not changed by later configuration.
+     */
+    private <P extends BaseExtensionPoint<T>, T> P createConfiguredExtension(P extension, JsonNode configNode) {
+        if (extension.getConfigClass() == null) {
+            return extension;
+        }
+        P configured = newInstance(extension);
+        enrichExtensionWithConfig(configured, configNode);
+        return configured;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <P> P newInstance(P extension) {
+        return (P) getExtensionFactory().create(extension.getClass());
+    }
+
     private <T> void enrichExtensionWithConfig(BaseExtensionPoint<T> extension, JsonNode configNode) {
         try {
             Class<T> configClass = extension.getConfigClass();
@@ -162,10 +295,12 @@ public class PluginManager extends JarPluginManager {
 
     public <P extends BaseExtensionPoint<T>, T> P getExtensionByIdWithConfig(Class<P> type, String pluginId, String extensionId, T config) {
         P extension = getExtensionById(type, pluginId, extensionId);
-        if (extension != null) {
-            extension.onConfigReceived(config);
+        if (extension == null) {
+            return null;
         }
-        return extension;
+        P configured = newInstance(extension);
+        configured.onConfigReceived(config);
+        return configured;
     }
 
     public <P extends BaseExtensionPoint<T>, T> P getExtensionById(Class<P> type, String pluginId, String extensionId) {
@@ -224,8 +359,7 @@ public class PluginManager extends JarPluginManager {
 
         P extension = PluginManager.getInstance()
                 .getExtensionById(clazz, extensionDefinition.getPluginId(), extensionDefinition.getId());
-        enrichExtensionWithConfig(extension, extensionDefinition.getConfig());
-        return extension;
+        return extension == null ? null : createConfiguredExtension(extension, extensionDefinition.getConfig());
     }
 
     @SuppressWarnings("unchecked")
@@ -1,13 +1,15 @@
 package org.correomqtt.plugin.model;
 
-import javafx.collections.FXCollections;
 import org.correomqtt.business.model.MessageType;
 import org.correomqtt.business.model.PublishStatus;
 import org.correomqtt.business.model.Qos;
+import org.correomqtt.business.utils.CorreoCharsetDecoder;
 import org.correomqtt.gui.model.MessagePropertiesDTO;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 
@@ -24,10 +26,14 @@ public class MessageExtensionDTO {
     private MessageType messageType;
     private PublishStatus publishStatus;
     private HashMap<String, Object> customFields;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ByteBuffer payloadBuffer;
 
     public MessageExtensionDTO(MessagePropertiesDTO messagePropertiesDTO) {
         this.topic = messagePropertiesDTO.getTopic();
-        this.payload = messagePropertiesDTO.getPayload();
+        this.payloadBuffer = messagePropertiesDTO.getPayloadBuffer();
+        this.payload = payloadBuffer == null ? messagePropertiesDTO.getPayload() : null;
         this.isRetained = messagePropertiesDTO.isRetained();
         this.qos = messagePropertiesDTO.getQos();
         this.dateTime = messagePropertiesDTO.getDateTime();
@@ -37,16 +43,44 @@ public class MessageExtensionDTO {
         this.customFields = new HashMap<>(messagePropertiesDTO.getExtraProperties());
     }
 
+    public MessageExtensionDTO(MessageExtensionDTO messageExtensionDTO) {
+        this.topic = messageExtensionDTO.topic;
+        this.payload = messageExtensionDTO.payload;
+        this.payloadBuffer = messageExtensionDTO.payloadBuffer;
+        this.isRetained = messageExtensionDTO.isRetained;
+        this.qos = messageExtensionDTO.qos;
+        this.dateTime = messageExtensionDTO.dateTime;
+        this.messageId = messageExtensionDTO.messageId;
+        this.messageType = messageExtensionDTO.messageType;
+        this.publishStatus = messageExtensionDTO.publishStatus;
+        this.customFields = messageExtensionDTO.customFields == null ? null : new HashMap<>(messageExtensionDTO.customFields);
+    }
+
+    public String getPayload() {
+        if (payload == null && payloadBuffer != null) {
+            payload = CorreoCharsetDecoder.decode(payloadBuffer);
+        }
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+        this.payloadBuffer = null;
+    }
+
     public MessagePropertiesDTO merge(MessagePropertiesDTO messageDTO) {
-        messageDTO.getTopicProperty().setValue(topic);
-        messageDTO.getPayloadProperty().setValue(payload);
-        messageDTO.getIsRetainedProperty().setValue(isRetained);
-        messageDTO.getQosProperty().setValue(qos);
-        messageDTO.getDateTimeProperty().setValue(dateTime);
-        messageDTO.getMessageIdProperty().setValue(messageId);
-        messageDTO.getMessageTypeProperty().setValue(messageType);
-        messageDTO.getPublishStatusProperty().setValue(publishStatus);
-        messageDTO.getExtraProperties().setValue(FXCollections.observableMap(customFields));
+        messageDTO.setTopic(topic);
+        // An untouched payload keeps its bytes.
+        if (payloadBuffer == null) {
+            messageDTO.setPayload(payload);
+        }
+        messageDTO.setRetained(isRetained);
+        messageDTO.setQos(qos);
+        messageDTO.setDateTime(dateTime);
+        // The id is kept, the message lists find messages by it.
+        messageDTO.setMessageType(messageType);
+        messageDTO.setPublishStatus(publishStatus);
+        messageDTO.setExtraProperties(customFields);
         return messageDTO;
     }
 }
@@ -0,0 +1,22 @@
+package org.correomqtt.plugin.spi;
+
+import org.correomqtt.plugin.model.MessageExtensionDTO;
+
+import java.util.List;
+
+/**
+ * Incoming message hook receiving all messages of one flush at once, for hooks that profit from doing their setup
+ * once per batch. Configured like any {@link IncomingMessageHook}.
+ */
+public interface BatchIncomingMessageHook extends IncomingMessageHook {
+
+    /**
+     * @return The processed messages, in the same order and number as given.
+     */
+    List<MessageExtensionDTO> onMessagesIncoming(String connectionId, List<MessageExtensionDTO> messages);
+
+    @Override
+    default MessageExtensionDTO onMessageIncoming(String connectionId, MessageExtensionDTO messageExtensionDTO) {
+        return onMessagesIncoming(connectionId, List.of(messageExtensionDTO)).get(0);
+    }
+}
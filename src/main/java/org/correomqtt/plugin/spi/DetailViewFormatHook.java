@@ -2,5 +2,8 @@ package org.correomqtt.plugin.spi;
 
 import org.correomqtt.gui.formats.Format;
 
+/**
+ * Format hook of older plugins, new plugins should implement {@link PayloadFormatHook}.
+ */
 public interface DetailViewFormatHook extends Format, BaseExtensionPoint {
 }
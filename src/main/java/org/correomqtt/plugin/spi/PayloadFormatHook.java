@@ -0,0 +1,10 @@
+package org.correomqtt.plugin.spi;
+
+import org.correomqtt.gui.formats.PayloadFormat;
+
+/**
+ * Formats the payload in detail views and the publish editor. Implementations must be thread safe, see
+ * {@link PayloadFormat}.
+ */
+public interface PayloadFormatHook extends PayloadFormat, BaseExtensionPoint {
+}
@@ -0,0 +1,100 @@
+package org.correomqtt;
+
+import org.correomqtt.business.utils.CorreoCharsetDecoder;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Disabled("Benchmark, run manually")
+class CorreoCharsetDecoderBenchmarkTests {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURE_ROUNDS = 5;
+
+    private static volatile long sink;
+
+    @Test
+    void decodeSmallPayload() {
+        ByteBuffer payload = asciiPayload(100);
+        benchmark("100 B ascii", payload, 200_000);
+    }
+
+    @Test
+    void decodeLargePayload() {
+        ByteBuffer payload = asciiPayload(64 * 1024);
+        benchmark("64 KB ascii", payload, 2_000);
+    }
+
+    @Test
+    void decodeLargeUtf8Payload() {
+        byte[] bytes = new byte[64 * 1024];
+        byte[] umlaut = "ä".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i += 2) {
+            bytes[i] = umlaut[0];
+            bytes[i + 1] = umlaut[1];
+        }
+        benchmark("64 KB utf-8", ByteBuffer.wrap(bytes).asReadOnlyBuffer(), 2_000);
+    }
+
+    private static ByteBuffer asciiPayload(int size) {
+        byte[] bytes = new byte[size];
+        Arrays.fill(bytes, (byte) '{');
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    private static void benchmark(String name, ByteBuffer payload, int iterations) {
+        assertEquals(decodeLegacy(payload), CorreoCharsetDecoder.decode(payload));
+
+        Function<ByteBuffer, String> legacyDecoder = CorreoCharsetDecoderBenchmarkTests::decodeLegacy;
+        Function<ByteBuffer, String> currentDecoder = CorreoCharsetDecoder::decode;
+
+        // Warm up both before measuring, so neither profits from running second.
+        run(legacyDecoder, payload, WARMUP_ROUNDS * iterations);
+        run(currentDecoder, payload, WARMUP_ROUNDS * iterations);
+
+        double legacy = measure(legacyDecoder, payload, iterations);
+        double current = measure(currentDecoder, payload, iterations);
+
+        System.out.printf("%s: legacy %.1f ns/op, current %.1f ns/op (%.1fx)%n", name, legacy, current, legacy / current);
+    }
+
+    private static double measure(Function<ByteBuffer, String> decoder, ByteBuffer payload, int iterations) {
+        long start = System.nanoTime();
+        run(decoder, payload, MEASURE_ROUNDS * iterations);
+        return (double) (System.nanoTime() - start) / (MEASURE_ROUNDS * iterations);
+    }
+
+    private static void run(Function<ByteBuffer, String> decoder, ByteBuffer payload, int count) {
+        long length = 0;
+        for (int i = 0; i < count; i++) {
+            length += decoder.apply(payload).length();
+        }
+        sink += length;
+    }
+
+    // Decoding as it was done before the per thread decoder was introduced.
+    private static String decodeLegacy(ByteBuffer payload) {
+        byte[] input = new byte[payload.remaining()];
+        payload.duplicate().get(input);
+
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+        decoder.onMalformedInput(CodingErrorAction.REPLACE)
+               .onUnmappableCharacter(CodingErrorAction.REPLACE)
+               .replaceWith("?");
+
+        try {
+            return decoder.decode(ByteBuffer.wrap(input)).toString();
+        } catch (CharacterCodingException e) {
+            return "?";
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.correomqtt;
+
+import org.correomqtt.business.utils.CorreoCharsetDecoder;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CorreoCharsetDecoderTests {
+
+    @Test
+    void testAscii() {
+        assertEquals("", CorreoCharsetDecoder.decode(new byte[0]));
+        assertEquals("{\"value\":1}", CorreoCharsetDecoder.decode(utf8("{\"value\":1}")));
+    }
+
+    @Test
+    void testAsciiSlice() {
+        ByteBuffer buffer = ByteBuffer.wrap(utf8("xxhelloxx"), 2, 5).slice();
+
+        assertEquals("hello", CorreoCharsetDecoder.decode(buffer));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void testReadOnlyBuffer() {
+        ByteBuffer buffer = ByteBuffer.wrap(utf8("grüße")).asReadOnlyBuffer();
+
+        assertEquals("grüße", CorreoCharsetDecoder.decode(buffer));
+        assertEquals("grüße", CorreoCharsetDecoder.decode(buffer));
+    }
+
+    @Test
+    void testMultiByte() {
+        String text = "äöü € 😀";
+        assertEquals(text, CorreoCharsetDecoder.decode(utf8(text)));
+    }
+
+    @Test
+    void testLargeMultiBytePayload() {
+        char[] chars = new char[300 * 1024];
+        Arrays.fill(chars, 'ä');
+        String text = new String(chars);
+
+        assertEquals(text, CorreoCharsetDecoder.decode(utf8(text)));
+    }
+
+    @Test
+    void testTruncatedMultiByte() {
+        byte[] bytes = utf8("aä");
+
+        assertEquals("a?", CorreoCharsetDecoder.decode(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    @Test
+    void testOutputFullWithinMultiByte() {
+        ByteBuffer input = ByteBuffer.wrap(utf8("aäö"));
+        CharBuffer output = CharBuffer.allocate(2);
+
+        CorreoCharsetDecoder.decode(input, output);
+        assertEquals("aä", new String(output.array(), 0, output.position()));
+        assertEquals(3, input.position());
+
+        output = CharBuffer.allocate(2);
+        CorreoCharsetDecoder.decode(input, output);
+        assertEquals("ö", new String(output.array(), 0, output.position()));
+        assertEquals(5, input.position());
+    }
+
+    @Test
+    void testPrefix() {
+        ByteBuffer input = ByteBuffer.wrap(utf8("äbc"));
+
+        assertEquals("äb", CorreoCharsetDecoder.decodePrefix(input, 2));
+        assertEquals(0, input.position());
+    }
+
+    @Test
+    void testPreview() {
+        assertEquals("a b", CorreoCharsetDecoder.decodePreview(ByteBuffer.wrap(utf8("  a\nb\r\n  ")), 100));
+        assertEquals("ab", CorreoCharsetDecoder.decodePreview(ByteBuffer.wrap(utf8("abc")), 2));
+        assertEquals("a b", CorreoCharsetDecoder.toPreview("a\nb c", 3));
+    }
+
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,123 @@
+package org.correomqtt;
+
+import javafx.collections.ListChangeListener;
+import org.correomqtt.gui.model.LatestValueStore;
+import org.correomqtt.gui.model.MessagePropertiesDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.correomqtt.MessagePropertiesDTOTests.message;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatestValueStoreTests {
+
+    @Test
+    void testOneRowPerTopic() {
+        LatestValueStore store = new LatestValueStore();
+        MessagePropertiesDTO a1 = message("a", "1");
+        MessagePropertiesDTO b1 = message("b", "1");
+        MessagePropertiesDTO a2 = message("a", "2");
+
+        store.addAll(List.of(a1, b1));
+        store.addAll(List.of(a2));
+
+        assertEquals(List.of(a2, b1), store.getRows());
+        assertEquals(2, store.size());
+        assertSame(a2, store.getEntry("a").getMessage());
+        assertEquals(2, store.getEntry("a").getMessageCount());
+        assertEquals(1, store.getEntry("b").getMessageCount());
+        assertNull(store.getEntry("c"));
+    }
+
+    @Test
+    void testRowReplacedOncePerBatch() {
+        LatestValueStore store = new LatestValueStore();
+        store.addAll(List.of(message("a", "1"), message("b", "1")));
+        int[] replaced = new int[1];
+        store.getRows().addListener((ListChangeListener<MessagePropertiesDTO>) change -> {
+            while (change.next()) {
+                if (change.wasReplaced()) {
+                    replaced[0] += change.getAddedSize();
+                }
+            }
+        });
+
+        MessagePropertiesDTO latest = message("a", "4");
+        store.addAll(List.of(message("a", "2"), message("a", "3"), latest));
+
+        assertEquals(1, replaced[0]);
+        assertSame(latest, store.getRows().get(0));
+        assertEquals(4, store.getEntry("a").getMessageCount());
+    }
+
+    @Test
+    void testNewTopicUpdatedInSameBatch() {
+        LatestValueStore store = new LatestValueStore();
+        MessagePropertiesDTO latest = message("a", "2");
+
+        store.addAll(List.of(message("a", "1"), latest));
+
+        assertEquals(List.of(latest), store.getRows());
+        assertEquals(2, store.getEntry("a").getMessageCount());
+    }
+
+    @Test
+    void testRemove() {
+        LatestValueStore store = new LatestValueStore();
+        MessagePropertiesDTO a1 = message("a", "1");
+        MessagePropertiesDTO a2 = message("a", "2");
+        MessagePropertiesDTO b1 = message("b", "1");
+        MessagePropertiesDTO c1 = message("c", "1");
+        store.addAll(List.of(a1, b1, c1, a2));
+
+        assertFalse(store.remove(a1));
+        assertTrue(store.remove(a2));
+        assertEquals(List.of(c1, b1), store.getRows());
+        assertNull(store.getEntry("a"));
+
+        // The last row took the place of the removed one and is still updated in place.
+        MessagePropertiesDTO c2 = message("c", "2");
+        store.addAll(List.of(c2));
+        assertEquals(List.of(c2, b1), store.getRows());
+        assertTrue(store.remove(b1));
+        assertEquals(List.of(c2), store.getRows());
+    }
+
+    @Test
+    void testUpdate() {
+        LatestValueStore store = new LatestValueStore();
+        MessagePropertiesDTO a1 = message("a", "1");
+        MessagePropertiesDTO a2 = message("a", "2");
+        store.addAll(List.of(a1, message("b", "1"), a2));
+        int[] replaced = new int[1];
+        store.getRows().addListener((ListChangeListener<MessagePropertiesDTO>) change -> {
+            while (change.next()) {
+                if (change.wasReplaced()) {
+                    replaced[0]++;
+                }
+            }
+        });
+
+        assertFalse(store.update(a1));
+        assertTrue(store.update(a2));
+        assertEquals(1, replaced[0]);
+    }
+
+    @Test
+    void testClear() {
+        LatestValueStore store = new LatestValueStore();
+        store.addAll(List.of(message("a", "1")));
+
+        store.clear();
+        MessagePropertiesDTO a2 = message("a", "2");
+        store.addAll(List.of(a2));
+
+        assertEquals(List.of(a2), store.getRows());
+        assertEquals(1, store.getEntry("a").getMessageCount());
+    }
+}
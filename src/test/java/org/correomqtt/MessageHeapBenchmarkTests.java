@@ -0,0 +1,78 @@
+package org.correomqtt;
+
+import javafx.beans.Observable;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.correomqtt.business.model.MessageType;
+import org.correomqtt.business.model.Qos;
+import org.correomqtt.business.utils.MessageIds;
+import org.correomqtt.gui.model.MessagePropertiesDTO;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Disabled("Benchmark, run manually")
+class MessageHeapBenchmarkTests {
+
+    private static final int MESSAGE_COUNT = 200_000;
+    private static final int TOPIC_COUNT = 1_000;
+
+    @Test
+    void heapPerRetainedMessage() {
+        // Every property created and observed by the list, as with the former property based messages.
+        ObservableList<MessagePropertiesDTO> materialized = FXCollections.observableArrayList(m -> new Observable[]{
+                m.getTopicProperty(),
+                m.getIsRetainedProperty(),
+                m.getQosProperty(),
+                m.getDateTimeProperty(),
+                m.getSubscriptionDTOProperty(),
+                m.getMessageTypeProperty(),
+                m.getPublishStatusProperty()
+        });
+        ObservableList<MessagePropertiesDTO> compact = FXCollections.observableArrayList();
+
+        double materializedBytes = measure(materialized::add);
+        assertEquals(MESSAGE_COUNT, materialized.size());
+        materialized.clear();
+
+        double compactBytes = measure(compact::add);
+        assertEquals(MESSAGE_COUNT, compact.size());
+
+        System.out.printf("%d messages: materialized %.0f B/message, compact %.0f B/message (%.1fx)%n",
+                MESSAGE_COUNT, materializedBytes, compactBytes, materializedBytes / compactBytes);
+    }
+
+    private static double measure(Consumer<MessagePropertiesDTO> list) {
+        long before = usedHeap();
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            list.accept(message(i));
+        }
+        return (double) (usedHeap() - before) / MESSAGE_COUNT;
+    }
+
+    private static MessagePropertiesDTO message(int i) {
+        byte[] payload = ("{\"value\":" + i + ",\"unit\":\"celsius\"}").getBytes(StandardCharsets.UTF_8);
+        return MessagePropertiesDTO.builder()
+                .topic("site/" + (i % 10) + "/sensor/" + (i % TOPIC_COUNT) + "/temperature")
+                .payloadBuffer(ByteBuffer.wrap(payload).asReadOnlyBuffer())
+                .qos(Qos.AT_LEAST_ONCE)
+                .dateTime(LocalDateTime.now())
+                .id(MessageIds.next())
+                .messageType(MessageType.INCOMING)
+                .build();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,53 @@
+package org.correomqtt;
+
+import org.correomqtt.business.utils.MessageIds;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageIdsTests {
+
+    @Test
+    void testNextIncreases() {
+        long first = MessageIds.next();
+        long second = MessageIds.next();
+
+        assertTrue(first > MessageIds.NONE);
+        assertTrue(second > first);
+    }
+
+    @Test
+    void testRoundTrip() {
+        long id = MessageIds.next();
+
+        assertEquals(id, MessageIds.fromString(MessageIds.toString(id)));
+    }
+
+    @Test
+    void testNone() {
+        assertNull(MessageIds.toString(MessageIds.NONE));
+        assertEquals(MessageIds.NONE, MessageIds.fromString(null));
+        assertEquals(MessageIds.NONE, MessageIds.fromString(""));
+    }
+
+    @Test
+    void testLegacyUuid() {
+        String uuid = "3f2504e0-4f89-41d3-9a0c-0305e82c3301";
+        long first = MessageIds.fromString(uuid);
+        long second = MessageIds.fromString(uuid);
+
+        assertTrue(first > MessageIds.NONE);
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void testInvalidNumbers() {
+        assertTrue(MessageIds.fromString("0") > MessageIds.NONE);
+        assertTrue(MessageIds.fromString("-5") > MessageIds.NONE);
+        assertTrue(MessageIds.fromString("12a") > MessageIds.NONE);
+        assertNotEquals(MessageIds.fromString("-5"), MessageIds.fromString("-5"));
+    }
+}
@@ -0,0 +1,147 @@
+package org.correomqtt;
+
+import org.correomqtt.business.model.MessageEvictionPolicy;
+import org.correomqtt.business.model.MessageType;
+import org.correomqtt.business.model.Qos;
+import org.correomqtt.business.utils.MessageIds;
+import org.correomqtt.gui.model.MessagePropertiesDTO;
+import org.correomqtt.gui.model.MessageRecord;
+import org.correomqtt.gui.model.MessageStore;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessagePropertiesDTOTests {
+
+    @Test
+    void testPayloadBytes() {
+        MessagePropertiesDTO messageDTO = message("grüße");
+
+        assertEquals(7, messageDTO.getPayloadBuffer().remaining());
+        assertTrue(messageDTO.getPayloadBuffer().isReadOnly());
+        assertEquals("grüße", messageDTO.getPayload());
+        assertSame(messageDTO.getPayload(), messageDTO.getPayload());
+        assertEquals("gr", messageDTO.getPayloadPrefix(2));
+    }
+
+    @Test
+    void testPayloadBufferIsCopied() {
+        ByteBuffer buffer = ByteBuffer.wrap("abc".getBytes(StandardCharsets.UTF_8));
+        MessagePropertiesDTO messageDTO = MessagePropertiesDTO.builder()
+                .topic("a")
+                .payloadBuffer(buffer)
+                .build();
+        buffer.put(0, (byte) 'x');
+
+        assertEquals("abc", messageDTO.getPayload());
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void testSetPayload() {
+        MessagePropertiesDTO messageDTO = message("old");
+        messageDTO.getPayload();
+        MessageRecord before = messageDTO.getRecord();
+
+        messageDTO.setPayload("new");
+
+        assertNotSame(before, messageDTO.getRecord());
+        assertNull(messageDTO.getPayloadBuffer());
+        assertEquals("new", messageDTO.getPayload());
+        assertEquals(6, messageDTO.getPayloadSize());
+    }
+
+    @Test
+    void testChangesNotifyListeners() {
+        MessagePropertiesDTO messageDTO = message("a");
+        int[] invalidations = new int[1];
+        messageDTO.addListener(observable -> invalidations[0]++);
+
+        messageDTO.setQos(Qos.EXACTLY_ONCE);
+        messageDTO.getPayload();
+
+        assertEquals(Qos.EXACTLY_ONCE, messageDTO.getQos());
+        assertEquals(1, invalidations[0]);
+    }
+
+    @Test
+    void testStoredBytesSurviveDecoding() {
+        MessageStore store = new MessageStore(0, 0, MessageEvictionPolicy.DROP_OLDEST, 0);
+        MessagePropertiesDTO messageDTO = message("{\"value\":1}");
+
+        store.add(messageDTO);
+        long payloadSize = messageDTO.getPayloadSize();
+        messageDTO.getPayload();
+
+        assertTrue(messageDTO.getPayloadSize() > payloadSize);
+        assertTrue(store.remove(messageDTO));
+        assertEquals(0, store.getStoredBytes());
+    }
+
+    @Test
+    void testEqualsById() {
+        MessagePropertiesDTO messageDTO = message("a");
+        MessagePropertiesDTO sameId = MessagePropertiesDTO.builder()
+                .topic("c/d")
+                .payload("b")
+                .id(messageDTO.getId())
+                .build();
+
+        assertEquals(messageDTO, sameId);
+        assertEquals(messageDTO.hashCode(), sameId.hashCode());
+        assertNotEquals(messageDTO, message("a"));
+    }
+
+    @Test
+    void testEqualsWithoutId() {
+        MessagePropertiesDTO messageDTO = MessagePropertiesDTO.builder().topic("a").payload("b").build();
+        MessagePropertiesDTO other = MessagePropertiesDTO.builder().topic("a").payload("b").build();
+
+        assertEquals(MessageIds.NONE, messageDTO.getId());
+        assertEquals(messageDTO, messageDTO);
+        assertNotEquals(messageDTO, other);
+    }
+
+    @Test
+    void testRemoveOnlyStoredInstance() {
+        MessageStore store = new MessageStore(0, 0, MessageEvictionPolicy.DROP_OLDEST, 0);
+        MessagePropertiesDTO messageDTO = message("a");
+        MessagePropertiesDTO sameId = MessagePropertiesDTO.builder()
+                .topic("a/b")
+                .payload("a")
+                .id(messageDTO.getId())
+                .build();
+        store.add(messageDTO);
+
+        assertFalse(store.remove(sameId));
+        assertSame(messageDTO, store.get(sameId.getId()));
+        assertTrue(store.remove(messageDTO));
+        assertEquals(0, store.size());
+        assertFalse(store.remove(messageDTO));
+    }
+
+    static MessagePropertiesDTO message(String payload) {
+        return message("a/b", payload);
+    }
+
+    static MessagePropertiesDTO message(String topic, String payload) {
+        return MessagePropertiesDTO.builder()
+                .topic(topic)
+                .payloadBuffer(ByteBuffer.wrap(payload.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer())
+                .qos(Qos.AT_LEAST_ONCE)
+                .dateTime(LocalDateTime.now())
+                .id(MessageIds.next())
+                .messageType(MessageType.INCOMING)
+                .build();
+    }
+}
@@ -0,0 +1,239 @@
+package org.correomqtt;
+
+import javafx.collections.ListChangeListener;
+import org.correomqtt.business.model.MessageEvictionPolicy;
+import org.correomqtt.business.utils.MessageIds;
+import org.correomqtt.gui.model.MessagePropertiesDTO;
+import org.correomqtt.gui.model.MessageStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.correomqtt.MessagePropertiesDTOTests.message;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageStoreTests {
+
+    // Stored size of a message with this payload, its bytes plus the per message overhead.
+    private static final String PAYLOAD_300_BYTES = "x".repeat(44);
+
+    @Test
+    void testNewestFirst() {
+        MessageStore store = new MessageStore(0, 0, MessageEvictionPolicy.DROP_OLDEST, 0);
+        MessagePropertiesDTO first = message("1");
+        MessagePropertiesDTO second = message("2");
+        MessagePropertiesDTO third = message("3");
+
+        store.add(first);
+        store.addAll(List.of(second, third));
+
+        assertEquals(List.of(third, second, first), store.getMessages());
+    }
+
+    @Test
+    void testCountEviction() {
+        MessageStore store = new MessageStore(3, 0, MessageEvictionPolicy.DROP_OLDEST, 0);
+        MessagePropertiesDTO first = message("1");
+        MessagePropertiesDTO second = message("2");
+        store.add(first);
+        store.add(second);
+        store.addAll(List.of(message("3"), message("4"), message("5")));
+
+        assertEquals(3, store.size());
+        assertEquals(2, store.getEvictedMessages());
+        assertFalse(store.getMessages().contains(first));
+        assertFalse(store.getMessages().contains(second));
+        assertNull(store.get(first.getId()));
+        assertFalse(store.remove(second));
+    }
+
+    @Test
+    void testByteEviction() {
+        MessageStore store = new MessageStore(0, 1000, MessageEvictionPolicy.DROP_OLDEST, 0);
+        MessagePropertiesDTO first = message(PAYLOAD_300_BYTES);
+        store.add(first);
+        store.add(message(PAYLOAD_300_BYTES));
+        store.add(message(PAYLOAD_300_BYTES));
+        assertEquals(900, store.getStoredBytes());
+
+        store.add(message(PAYLOAD_300_BYTES));
+
+        assertEquals(3, store.size());
+        assertEquals(900, store.getStoredBytes());
+        assertFalse(store.getMessages().contains(first));
+    }
+
+    @Test
+    void testNewestKeptOverBudget() {
+        MessageStore store = new MessageStore(0, 100, MessageEvictionPolicy.DROP_OLDEST, 0);
+        MessagePropertiesDTO large = message(PAYLOAD_300_BYTES);
+
+        store.add(message("small"));
+        store.add(large);
+
+        assertEquals(List.of(large), store.getMessages());
+    }
+
+    @Test
+    void testKeepLastPerTopic() {
+        MessageStore store = new MessageStore(0, 0, MessageEvictionPolicy.KEEP_LAST_PER_TOPIC, 2);
+        MessagePropertiesDTO a1 = message("a", "1");
+        MessagePropertiesDTO a2 = message("a", "2");
+        MessagePropertiesDTO b1 = message("b", "1");
+        MessagePropertiesDTO a3 = message("a", "3");
+
+        store.addAll(List.of(a1, a2, b1));
+        store.add(a3);
+
+        assertEquals(List.of(a3, b1, a2), store.getMessages());
+        assertEquals(1, store.getEvictedMessages());
+        assertNull(store.get(a1.getId()));
+    }
+
+    @Test
+    void testKeepLastPerTopicAfterRemove() {
+        MessageStore store = new MessageStore(0, 0, MessageEvictionPolicy.KEEP_LAST_PER_TOPIC, 2);
+        MessagePropertiesDTO a1 = message("a", "1");
+        MessagePropertiesDTO a2 = message("a", "2");
+        store.addAll(List.of(a1, a2));
+
+        assertTrue(store.remove(a2));
+        store.add(message("a", "3"));
+
+        assertEquals(2, store.size());
+        assertTrue(store.getMessages().contains(a1));
+        assertEquals(0, store.getEvictedMessages());
+    }
+
+    @Test
+    void testIdIndex() {
+        MessageStore store = new MessageStore(0, 0, MessageEvictionPolicy.DROP_OLDEST, 0);
+        MessagePropertiesDTO messageDTO = message("1");
+        MessagePropertiesDTO withoutId = MessagePropertiesDTO.builder().topic("a").payload("2").build();
+        store.addAll(List.of(messageDTO, withoutId));
+
+        assertSame(messageDTO, store.get(messageDTO.getId()));
+        assertNull(store.get(MessageIds.NONE));
+        assertNull(store.get(MessageIds.next()));
+
+        assertTrue(store.remove(messageDTO));
+        assertNull(store.get(messageDTO.getId()));
+        assertTrue(store.remove(withoutId));
+        assertEquals(0, store.size());
+        assertEquals(0, store.getStoredBytes());
+    }
+
+    @Test
+    void testRingWrapsAround() {
+        MessageStore store = new MessageStore(100, 0, MessageEvictionPolicy.DROP_OLDEST, 0);
+        List<MessagePropertiesDTO> expected = new ArrayList<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 1000; i++) {
+            MessagePropertiesDTO messageDTO = message(Integer.toString(i));
+            store.add(messageDTO);
+            expected.add(0, messageDTO);
+            if (expected.size() > 100) {
+                expected.remove(100);
+            }
+            if (i % 7 == 0) {
+                MessagePropertiesDTO removed = expected.remove(random.nextInt(expected.size()));
+                assertTrue(store.remove(removed));
+            }
+        }
+
+        assertEquals(expected, store.getMessages());
+    }
+
+    @Test
+    void testEvictionRemovesTail() {
+        MessageStore store = new MessageStore(2, 0, MessageEvictionPolicy.DROP_OLDEST, 0);
+        store.addAll(List.of(message("1"), message("2")));
+        List<Integer> removedFrom = new ArrayList<>();
+        store.getMessages().addListener((ListChangeListener<MessagePropertiesDTO>) change -> {
+            while (change.next()) {
+                if (change.wasRemoved()) {
+                    removedFrom.add(change.getFrom());
+                }
+            }
+        });
+
+        store.add(message("3"));
+
+        assertEquals(List.of(2), removedFrom);
+    }
+
+    @Test
+    void testUpdate() {
+        MessageStore store = new MessageStore(0, 0, MessageEvictionPolicy.DROP_OLDEST, 0);
+        MessagePropertiesDTO messageDTO = message("1");
+        store.addAll(List.of(messageDTO, message("2")));
+        int[] replaced = new int[1];
+        store.getMessages().addListener((ListChangeListener<MessagePropertiesDTO>) change -> {
+            while (change.next()) {
+                if (change.wasReplaced()) {
+                    replaced[0]++;
+                    assertEquals(1, change.getFrom());
+                }
+            }
+        });
+
+        assertTrue(store.update(messageDTO));
+        assertFalse(store.update(message("3")));
+        assertEquals(1, replaced[0]);
+    }
+
+    @Test
+    void testMessageInTwoStores() {
+        MessageStore first = new MessageStore(0, 0, MessageEvictionPolicy.DROP_OLDEST, 0);
+        MessageStore second = new MessageStore(0, 0, MessageEvictionPolicy.DROP_OLDEST, 0);
+        MessagePropertiesDTO shared = message("shared");
+        first.addAll(List.of(message("1"), message("2"), shared));
+        second.add(shared);
+        second.add(message("3"));
+
+        assertTrue(first.remove(shared));
+        assertEquals(2, second.size());
+        assertTrue(second.remove(shared));
+        assertEquals(1, second.size());
+    }
+
+    @Test
+    void testSameId() {
+        MessageStore store = new MessageStore(0, 0, MessageEvictionPolicy.DROP_OLDEST, 0);
+        MessagePropertiesDTO messageDTO = message("1");
+        MessagePropertiesDTO sameId = MessagePropertiesDTO.builder()
+                .topic("a/b")
+                .payload("2")
+                .id(messageDTO.getId())
+                .build();
+        store.addAll(List.of(messageDTO, sameId));
+
+        assertSame(messageDTO, store.get(messageDTO.getId()));
+        assertTrue(store.remove(sameId));
+        assertEquals(List.of(messageDTO), store.getMessages());
+        assertTrue(store.remove(messageDTO));
+        assertEquals(0, store.getStoredBytes());
+    }
+
+    @Test
+    void testClear() {
+        MessageStore store = new MessageStore(0, 0, MessageEvictionPolicy.KEEP_LAST_PER_TOPIC, 1);
+        MessagePropertiesDTO messageDTO = message("1");
+        store.add(messageDTO);
+
+        store.clear();
+
+        assertEquals(0, store.size());
+        assertEquals(0, store.getStoredBytes());
+        assertNull(store.get(messageDTO.getId()));
+        store.add(message("2"));
+        assertEquals(0, store.getEvictedMessages());
+    }
+}
@@ -0,0 +1,112 @@
+package org.correomqtt;
+
+import org.correomqtt.business.model.SubscriptionDTO;
+import org.correomqtt.business.topic.SubscriptionRouter;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Disabled("Benchmark, run manually")
+class SubscriptionRouterBenchmarkTests {
+
+    private static final int FILTER_COUNT = 10_000;
+    private static final int TOPIC_COUNT = 1_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURE_ROUNDS = 5;
+
+    private static volatile long sink;
+
+    @Test
+    void routeWith10kFilters() {
+        List<SubscriptionDTO> subscriptions = new ArrayList<>();
+        SubscriptionRouter router = new SubscriptionRouter();
+        for (int i = 0; i < FILTER_COUNT; i++) {
+            SubscriptionDTO subscriptionDTO = SubscriptionDTO.builder().topic(filter(i)).build();
+            subscriptions.add(subscriptionDTO);
+            router.add(subscriptionDTO);
+        }
+
+        List<String> topics = new ArrayList<>();
+        for (int i = 0; i < TOPIC_COUNT; i++) {
+            topics.add("site/" + (i % 10) + "/building/" + (i % 100) + "/sensor/" + i + "/temperature");
+        }
+
+        Function<String, List<SubscriptionDTO>> linear = topic -> {
+            List<SubscriptionDTO> matches = new ArrayList<>();
+            for (SubscriptionDTO subscriptionDTO : subscriptions) {
+                if (matches(subscriptionDTO.getTopic(), topic)) {
+                    matches.add(subscriptionDTO);
+                }
+            }
+            return matches;
+        };
+        Function<String, List<SubscriptionDTO>> trie = router::route;
+
+        for (String topic : topics) {
+            assertEquals(new HashSet<>(linear.apply(topic)), new HashSet<>(trie.apply(topic)));
+        }
+
+        run(linear, topics, WARMUP_ROUNDS);
+        run(trie, topics, WARMUP_ROUNDS);
+
+        double linearNanos = measure(linear, topics);
+        double trieNanos = measure(trie, topics);
+
+        System.out.printf("%d filters: linear %.1f ns/topic, trie %.1f ns/topic (%.1fx)%n",
+                FILTER_COUNT, linearNanos, trieNanos, linearNanos / trieNanos);
+    }
+
+    // Mix of exact filters, single level and multi level wildcards.
+    private static String filter(int i) {
+        switch (i % 4) {
+            case 0:
+                return "site/" + (i % 10) + "/building/" + (i % 100) + "/sensor/" + i + "/temperature";
+            case 1:
+                return "site/" + (i % 10) + "/building/" + (i % 100) + "/sensor/" + i + "/+";
+            case 2:
+                return "site/+/building/" + (i % 100) + "/sensor/" + i + "/#";
+            default:
+                return "site/" + (i % 10) + "/building/" + i + "/#";
+        }
+    }
+
+    private static double measure(Function<String, List<SubscriptionDTO>> router, List<String> topics) {
+        long start = System.nanoTime();
+        run(router, topics, MEASURE_ROUNDS);
+        return (double) (System.nanoTime() - start) / (MEASURE_ROUNDS * topics.size());
+    }
+
+    private static void run(Function<String, List<SubscriptionDTO>> router, List<String> topics, int rounds) {
+        long count = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (String topic : topics) {
+                count += router.apply(topic).size();
+            }
+        }
+        sink += count;
+    }
+
+    // Straight forward MQTT topic filter matching, as a reference.
+    private static boolean matches(String filter, String topic) {
+        String[] filterLevels = filter.split("/", -1);
+        String[] topicLevels = topic.split("/", -1);
+        for (int i = 0; i < filterLevels.length; i++) {
+            if (filterLevels[i].equals("#")) {
+                return true;
+            }
+            if (i >= topicLevels.length) {
+                return false;
+            }
+            if (!filterLevels[i].equals("+") && !filterLevels[i].equals(topicLevels[i])) {
+                return false;
+            }
+        }
+        return filterLevels.length == topicLevels.length;
+    }
+}
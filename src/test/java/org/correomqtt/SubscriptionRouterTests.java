@@ -0,0 +1,65 @@
+package org.correomqtt;
+
+import org.correomqtt.business.model.SubscriptionDTO;
+import org.correomqtt.business.topic.SubscriptionRouter;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubscriptionRouterTests {
+
+    @Test
+    void testRoute() {
+        SubscriptionRouter router = new SubscriptionRouter();
+        SubscriptionDTO all = subscription("a/#");
+        SubscriptionDTO level = subscription("a/+/c");
+        SubscriptionDTO other = subscription("b/+");
+        router.add(all);
+        router.add(level);
+        router.add(other);
+
+        assertEquals(Set.of(all, level), Set.copyOf(router.route("a/b/c")));
+        assertEquals(List.of(other), router.route("b/c"));
+        assertEquals(List.of(), router.route("c"));
+    }
+
+    @Test
+    void testPrimaryIsAddedFirst() {
+        SubscriptionRouter router = new SubscriptionRouter();
+        SubscriptionDTO level = subscription("a/+/c");
+        SubscriptionDTO all = subscription("a/#");
+        router.add(level);
+        router.add(all);
+
+        assertEquals(level, router.getPrimary("a/b/c"));
+        assertTrue(router.isPrimary("a/b/c", level));
+        assertFalse(router.isPrimary("a/b/c", all));
+        assertTrue(router.isPrimary("a/b", all));
+
+        router.remove(level);
+        assertTrue(router.isPrimary("a/b/c", all));
+    }
+
+    @Test
+    void testHiddenSubscriptions() {
+        SubscriptionRouter router = new SubscriptionRouter();
+        SubscriptionDTO hidden = SubscriptionDTO.builder().topic("a/#").hidden(true).build();
+        SubscriptionDTO visible = subscription("a/b");
+        router.add(hidden);
+        router.add(visible);
+
+        assertEquals(visible, router.getPrimary("a/b"));
+        assertTrue(router.isPrimary("a/b", hidden));
+        assertNull(router.getPrimary("a/c"));
+    }
+
+    private static SubscriptionDTO subscription(String topic) {
+        return SubscriptionDTO.builder().topic(topic).build();
+    }
+}
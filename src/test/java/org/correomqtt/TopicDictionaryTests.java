@@ -0,0 +1,65 @@
+package org.correomqtt;
+
+import org.correomqtt.business.topic.TopicDictionary;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopicDictionaryTests {
+
+    @Test
+    void testIntern() {
+        TopicDictionary dictionary = new TopicDictionary();
+        String topic = "a/b";
+
+        int id = dictionary.intern(topic);
+
+        assertTrue(id > TopicDictionary.NO_ID);
+        assertEquals(id, dictionary.intern(new String("a/b")));
+        assertSame(topic, dictionary.getTopic(id));
+        assertNotEquals(id, dictionary.intern("a/c"));
+        assertEquals(2, dictionary.size());
+    }
+
+    @Test
+    void testUnknown() {
+        TopicDictionary dictionary = new TopicDictionary();
+
+        assertEquals(TopicDictionary.NO_ID, dictionary.intern(null));
+        assertNull(dictionary.getTopic(TopicDictionary.NO_ID));
+        assertNull(dictionary.getTopic(1));
+        assertNull(dictionary.getTopic(-1));
+        assertEquals(0, dictionary.size());
+    }
+
+    @Test
+    void testGrows() {
+        TopicDictionary dictionary = new TopicDictionary();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i + 1, dictionary.intern("topic/" + i));
+        }
+
+        assertEquals("topic/0", dictionary.getTopic(1));
+        assertEquals("topic/999", dictionary.getTopic(1000));
+        assertEquals(1000, dictionary.size());
+    }
+
+    @Test
+    void testStopsGrowingWhenFull() {
+        TopicDictionary dictionary = new TopicDictionary();
+        int count = 0;
+        while (dictionary.intern("topic/" + count) != TopicDictionary.NO_ID) {
+            count++;
+            assertTrue(count <= 1_000_000);
+        }
+
+        assertEquals(count, dictionary.size());
+        assertEquals(1, dictionary.intern("topic/0"));
+        assertEquals(TopicDictionary.NO_ID, dictionary.intern("other"));
+        assertEquals(count, dictionary.size());
+    }
+}
@@ -0,0 +1,104 @@
+package org.correomqtt;
+
+import org.correomqtt.business.topic.TopicTrie;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopicTrieTests {
+
+    @Test
+    void testExactTopics() {
+        TopicTrie<String> trie = new TopicTrie<>();
+        trie.put("a/b", "ab");
+        trie.put("a/b/c", "abc");
+
+        assertEquals("ab", trie.get("a/b"));
+        assertEquals("abc", trie.get("a/b/c"));
+        assertNull(trie.get("a"));
+        assertNull(trie.get("a/b/c/d"));
+        assertEquals(2, trie.size());
+    }
+
+    @Test
+    void testRemove() {
+        TopicTrie<String> trie = new TopicTrie<>();
+        trie.put("a/b", "ab");
+
+        assertEquals("ab", trie.remove("a/b"));
+        assertNull(trie.remove("a/b"));
+        assertNull(trie.get("a/b"));
+        assertEquals(0, trie.size());
+        assertFalse(trie.hasMatch("a/b"));
+    }
+
+    @Test
+    void testSingleLevelWildcard() {
+        TopicTrie<String> trie = trie("a/+/c", "+/b/+", "+");
+
+        assertEquals(List.of("+/b/+", "a/+/c"), matches(trie, "a/b/c"));
+        assertEquals(List.of("a/+/c"), matches(trie, "a/x/c"));
+        assertEquals(List.of("+"), matches(trie, "a"));
+        assertEquals(List.of(), matches(trie, "a/b"));
+        assertEquals(List.of(), matches(trie, "a/x/c/d"));
+    }
+
+    @Test
+    void testEmptyLevels() {
+        TopicTrie<String> trie = trie("a/+/c", "+/+");
+
+        assertEquals(List.of("a/+/c"), matches(trie, "a//c"));
+        assertEquals(List.of("+/+"), matches(trie, "/a"));
+    }
+
+    @Test
+    void testMultiLevelWildcard() {
+        TopicTrie<String> trie = trie("a/#", "#", "a/b/#");
+
+        assertEquals(List.of("#", "a/#", "a/b/#"), matches(trie, "a/b/c/d"));
+        assertEquals(List.of("#", "a/#", "a/b/#"), matches(trie, "a/b"));
+        assertEquals(List.of("#", "a/#"), matches(trie, "a"));
+        assertEquals(List.of("#"), matches(trie, "b"));
+    }
+
+    @Test
+    void testDollarTopics() {
+        TopicTrie<String> trie = trie("#", "+/broker/uptime", "$SYS/#", "$SYS/+/uptime");
+
+        assertEquals(List.of("$SYS/#", "$SYS/+/uptime"), matches(trie, "$SYS/broker/uptime"));
+        assertEquals(List.of("#", "+/broker/uptime"), matches(trie, "SYS/broker/uptime"));
+        // Only the first level is special, a $ further down is a normal character.
+        assertEquals(List.of("#"), matches(trie, "a/$b"));
+    }
+
+    @Test
+    void testHasMatch() {
+        TopicTrie<String> trie = trie("a/+");
+
+        assertTrue(trie.hasMatch("a/b"));
+        assertFalse(trie.hasMatch("a/b/c"));
+        assertFalse(trie.hasMatch("b/a"));
+    }
+
+    private static TopicTrie<String> trie(String... filters) {
+        TopicTrie<String> trie = new TopicTrie<>();
+        for (String filter : filters) {
+            trie.put(filter, filter);
+        }
+        return trie;
+    }
+
+    private static List<String> matches(TopicTrie<String> trie, String topic) {
+        List<String> matches = new ArrayList<>();
+        trie.forEachMatch(topic, matches::add);
+        Collections.sort(matches);
+        return matches;
+    }
+}
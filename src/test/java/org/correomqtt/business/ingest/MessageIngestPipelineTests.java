@@ -0,0 +1,89 @@
+package org.correomqtt.business.ingest;
+
+import org.correomqtt.business.model.IngestOverflowPolicy;
+import org.correomqtt.business.model.MessageDTO;
+import org.correomqtt.business.model.SubscriptionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// In the package of the pipeline, the backlog limit can not be set elsewhere.
+class MessageIngestPipelineTests {
+
+    @Test
+    void testBlockNeverDrops() {
+        IngestBacklog backlog = fullBacklog();
+        MessageIngestPipeline pipeline = new MessageIngestPipeline("test", 1, 2, IngestOverflowPolicy.BLOCK, 1,
+                null, backlog);
+        SubscriptionDTO subscription = subscription(IngestOverflowPolicy.BLOCK);
+        AtomicInteger acknowledged = new AtomicInteger();
+
+        for (int i = 0; i < 100; i++) {
+            pipeline.offer(message(acknowledged), subscription);
+        }
+
+        assertEquals(0, pipeline.getDroppedMessages());
+        assertEquals(0, acknowledged.get());
+        assertEquals(100, pipeline.getQueueDepth());
+        pipeline.shutdown();
+    }
+
+    @Test
+    void testShutdownAcknowledgesQueued() {
+        IngestBacklog backlog = fullBacklog();
+        MessageIngestPipeline pipeline = new MessageIngestPipeline("test", 2, 200, IngestOverflowPolicy.BLOCK, 1,
+                null, backlog);
+        SubscriptionDTO blocking = subscription(IngestOverflowPolicy.BLOCK);
+        SubscriptionDTO conflating = subscription(IngestOverflowPolicy.CONFLATE);
+        AtomicInteger acknowledged = new AtomicInteger();
+
+        for (int i = 0; i < 50; i++) {
+            pipeline.offer(message(acknowledged), blocking);
+        }
+        for (int i = 0; i < 50; i++) {
+            pipeline.offer(message(acknowledged), conflating);
+        }
+
+        pipeline.shutdown();
+
+        assertEquals(100, acknowledged.get());
+        assertEquals(0, pipeline.getQueueDepth());
+    }
+
+    @Test
+    void testOfferAfterShutdownAcknowledges() {
+        MessageIngestPipeline pipeline = new MessageIngestPipeline("test", 1, 10, IngestOverflowPolicy.BLOCK, 1,
+                null, new IngestBacklog());
+        AtomicInteger acknowledged = new AtomicInteger();
+        pipeline.shutdown();
+
+        pipeline.offer(message(acknowledged), subscription(IngestOverflowPolicy.BLOCK));
+
+        assertEquals(1, acknowledged.get());
+        assertEquals(0, pipeline.getQueueDepth());
+    }
+
+    // Keeps the workers waiting, so everything offered stays queued.
+    private static IngestBacklog fullBacklog() {
+        IngestBacklog backlog = new IngestBacklog(1);
+        backlog.added(1);
+        return backlog;
+    }
+
+    private static SubscriptionDTO subscription(IngestOverflowPolicy overflowPolicy) {
+        return SubscriptionDTO.builder()
+                .topic("a/" + overflowPolicy.name())
+                .overflowPolicy(overflowPolicy)
+                .build();
+    }
+
+    private static MessageDTO message(AtomicInteger acknowledged) {
+        return MessageDTO.builder()
+                .topic("a/b")
+                .payload("payload")
+                .acknowledgement(acknowledged::incrementAndGet)
+                .build();
+    }
+}
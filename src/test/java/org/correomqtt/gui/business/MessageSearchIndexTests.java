@@ -0,0 +1,159 @@
+package org.correomqtt.gui.business;
+
+import org.correomqtt.business.model.MessageType;
+import org.correomqtt.business.model.Qos;
+import org.correomqtt.business.utils.MessageIds;
+import org.correomqtt.gui.model.MessagePropertiesDTO;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// In the package of the index, which is not public.
+class MessageSearchIndexTests {
+
+    @Test
+    void testQueryParsing() {
+        assertSame(MessageSearchQuery.EMPTY, MessageSearchQuery.of(null, false, false));
+        assertSame(MessageSearchQuery.EMPTY, MessageSearchQuery.of("", true, true));
+        assertThrows(PatternSyntaxException.class, () -> MessageSearchQuery.of("(", false, true));
+
+        MessageSearchQuery query = MessageSearchQuery.of("a.c", true, false);
+        assertEquals("a.c", query.getText());
+        assertTrue(query.isIgnoreCase());
+        assertFalse(query.isRegex());
+    }
+
+    @Test
+    void testQueryMatching() {
+        assertTrue(MessageSearchQuery.of("Temp", false, false).matches("roomTemp"));
+        assertFalse(MessageSearchQuery.of("temp", false, false).matches("roomTemp"));
+        assertTrue(MessageSearchQuery.of("TEMP", true, false).matches("roomTemp"));
+        assertTrue(MessageSearchQuery.of("ÄRGER", true, false).matches("ärger"));
+        assertFalse(MessageSearchQuery.of("a.c", true, false).matches("abc"));
+        assertTrue(MessageSearchQuery.of("a.c", false, true).matches("abc"));
+        assertFalse(MessageSearchQuery.of("abc", false, false).matches(null));
+    }
+
+    @Test
+    void testQueryOnTopicAndPayload() {
+        MessagePropertiesDTO messageDTO = message("site/kitchen", "{\"temp\":21}");
+
+        assertTrue(MessageSearchQuery.EMPTY.test(messageDTO));
+        assertTrue(MessageSearchQuery.of("kitchen", false, false).test(messageDTO));
+        assertTrue(MessageSearchQuery.of("temp", false, false).test(messageDTO));
+        assertFalse(MessageSearchQuery.of("garage", false, false).test(messageDTO));
+    }
+
+    @Test
+    void testSameResultAsQuery() {
+        List<MessagePropertiesDTO> messages = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            messages.add(message("site/" + (i % 7) + "/Sensor" + i, "{\"value\":" + i + ",\"unit\":\"" + (i % 2 == 0 ? "celsius" : "Fahrenheit") + "\"}"));
+        }
+        MessageSearchIndex index = new MessageSearchIndex();
+        index.addAll(messages);
+
+        for (String text : List.of("sensor1", "Sensor1", "site/3", "celsius", "FAHRENHEIT", "e\":4", "ue", "x", "nothing")) {
+            for (boolean ignoreCase : new boolean[]{false, true}) {
+                MessageSearchQuery query = MessageSearchQuery.of(text, ignoreCase, false);
+                assertEquals(linearSearch(messages, query), index.search(query), text);
+            }
+        }
+
+        MessageSearchQuery regex = MessageSearchQuery.of("Sensor1[0-9]$", false, true);
+        assertEquals(linearSearch(messages, regex), index.search(regex));
+    }
+
+    @Test
+    void testLongPayloadsAreCheckedBeyondIndexedPart() {
+        MessagePropertiesDTO messageDTO = message("a", "x".repeat(MessageSearchIndex.INDEXED_PAYLOAD_CHARS) + "needle");
+        MessageSearchIndex index = new MessageSearchIndex();
+        index.addAll(List.of(messageDTO, message("b", "haystack")));
+
+        assertEquals(Set.of(messageDTO), index.search(MessageSearchQuery.of("needle", false, false)));
+    }
+
+    @Test
+    void testPayloadMatchedAcrossChunks() {
+        String filler = "ä".repeat(MessageSearchIndex.INDEXED_PAYLOAD_CHARS - 3);
+        MessagePropertiesDTO atIndexEnd = message("a", filler + "needle");
+        MessagePropertiesDTO farBehind = message("a", "x".repeat(20_000) + "needle" + "x".repeat(10));
+        MessagePropertiesDTO missing = message("a", "x".repeat(20_000) + "needl");
+
+        MessageSearchQuery query = MessageSearchQuery.of("NEEDLE", true, false);
+        assertTrue(query.matchesPayload(atIndexEnd));
+        assertTrue(query.matchesPayload(farBehind));
+        assertFalse(query.matchesPayload(missing));
+    }
+
+    @Test
+    void testRegexNeedsWholePayload() {
+        MessagePropertiesDTO messageDTO = message("a", "x".repeat(1000) + "end");
+        MessageSearchQuery regex = MessageSearchQuery.of("x$", false, true);
+        String payloadStart = messageDTO.getPayloadPrefix(MessageSearchIndex.INDEXED_PAYLOAD_CHARS);
+
+        assertFalse(regex.matchesPayloadStart(payloadStart, false));
+        assertTrue(regex.matchesPayloadStart("x", true));
+        assertFalse(regex.matchesPayload(messageDTO));
+        assertTrue(MessageSearchQuery.of("x", false, false).matchesPayloadStart(payloadStart, false));
+    }
+
+    @Test
+    void testRemove() {
+        MessagePropertiesDTO first = message("a", "match");
+        MessagePropertiesDTO second = message("b", "match");
+        MessageSearchIndex index = new MessageSearchIndex();
+        index.addAll(List.of(first, second, first));
+        assertEquals(2, index.size());
+
+        index.removeAll(List.of(first));
+
+        assertEquals(1, index.size());
+        assertEquals(Set.of(second), index.search(MessageSearchQuery.of("match", false, false)));
+    }
+
+    @Test
+    void testCompaction() {
+        List<MessagePropertiesDTO> messages = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            messages.add(message("topic/" + i, "payload " + i));
+        }
+        MessageSearchIndex index = new MessageSearchIndex();
+        index.addAll(messages);
+
+        index.removeAll(messages.subList(0, 4000));
+        List<MessagePropertiesDTO> live = messages.subList(4000, 5000);
+
+        MessageSearchQuery query = MessageSearchQuery.of("payload 4", false, false);
+        assertEquals(1000, index.size());
+        assertEquals(linearSearch(live, query), index.search(query));
+    }
+
+    private static Set<MessagePropertiesDTO> linearSearch(List<MessagePropertiesDTO> messages, MessageSearchQuery query) {
+        return messages.stream().filter(query::test).collect(Collectors.toSet());
+    }
+
+    private static MessagePropertiesDTO message(String topic, String payload) {
+        return MessagePropertiesDTO.builder()
+                .topic(topic)
+                .payloadBuffer(ByteBuffer.wrap(payload.getBytes(StandardCharsets.UTF_8)))
+                .qos(Qos.AT_MOST_ONCE)
+                .dateTime(LocalDateTime.now())
+                .id(MessageIds.next())
+                .messageType(MessageType.INCOMING)
+                .build();
+    }
+}
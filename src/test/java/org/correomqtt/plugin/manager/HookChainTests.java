@@ -0,0 +1,103 @@
+package org.correomqtt.plugin.manager;
+
+import org.correomqtt.gui.model.MessagePropertiesDTO;
+import org.correomqtt.plugin.model.MessageExtensionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// In the package of the chain, links can not be created elsewhere.
+class HookChainTests {
+
+    private static final long TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void testRequiredRunsHooksInOrder() throws HookFailedException {
+        HookChain<UnaryOperator<MessageExtensionDTO>> chain = chain(
+                message -> append(message, "b"),
+                message -> append(message, "c"));
+
+        MessageExtensionDTO result = chain.executeRequired(message(), UnaryOperator::apply);
+
+        assertEquals("abc", result.getPayload());
+    }
+
+    @Test
+    void testRequiredFailsOnFailingHook() {
+        boolean[] called = new boolean[1];
+        HookChain<UnaryOperator<MessageExtensionDTO>> chain = chain(
+                message -> {
+                    throw new IllegalStateException("no key");
+                },
+                message -> {
+                    called[0] = true;
+                    return message;
+                });
+
+        HookFailedException e = assertThrows(HookFailedException.class,
+                () -> chain.executeRequired(message(), UnaryOperator::apply));
+
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertFalse(called[0]);
+        assertEquals(1, chain.getStatistics().get(0).getFailures());
+    }
+
+    @Test
+    void testRequiredFailsOnTimeout() {
+        HookChain<UnaryOperator<MessageExtensionDTO>> chain = chain(message -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return message;
+        });
+
+        assertThrows(HookFailedException.class, () -> chain.executeRequired(message(), UnaryOperator::apply));
+        assertEquals(1, chain.getStatistics().get(0).getTimeouts());
+    }
+
+    @Test
+    void testBatchBypassesFailingHook() {
+        HookChain<UnaryOperator<MessageExtensionDTO>> chain = chain(
+                message -> {
+                    throw new IllegalStateException("broken");
+                },
+                message -> append(message, "c"));
+
+        List<MessageExtensionDTO> result = chain.executeBatch(List.of(message()), UnaryOperator::apply,
+                (hook, messages) -> null);
+
+        assertEquals("ac", result.get(0).getPayload());
+    }
+
+    @SafeVarargs
+    private static HookChain<UnaryOperator<MessageExtensionDTO>> chain(UnaryOperator<MessageExtensionDTO>... hooks) {
+        List<HookChain.Link<UnaryOperator<MessageExtensionDTO>>> links = new ArrayList<>();
+        for (int i = 0; i < hooks.length; i++) {
+            links.add(new HookChain.Link<>(hooks[i], new HookStatistics("TestHook", "test", "hook" + i),
+                    TIMEOUT_NANOS, TIMEOUT_NANOS));
+        }
+        return new HookChain<>(links);
+    }
+
+    private static MessageExtensionDTO append(MessageExtensionDTO message, String suffix) {
+        message.setPayload(message.getPayload() + suffix);
+        return message;
+    }
+
+    private static MessageExtensionDTO message() {
+        return new MessageExtensionDTO(MessagePropertiesDTO.builder()
+                .topic("a/b")
+                .payload("a")
+                .build());
+    }
+}